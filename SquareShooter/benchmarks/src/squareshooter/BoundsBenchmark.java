@@ -0,0 +1,75 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kollisionstests wie in einem Tick (Spieler gegen alle Enemies, Bullet-Punkte gegen alle Enemies):
+ * rectangle = Objekte mit getBounds(), das jedes Mal ein neues java.awt.Rectangle liefert (wie SquareShooterUpgraded),
+ * aabb = Archetype-Spalten + Aabb. Mit -prof gc starten, gc.alloc.rate.norm zeigt die Allokation pro Aufruf.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoundsBenchmark {
+    static final int POINTS = 64;
+
+    @Param({"100", "1000", "10000"})
+    public int enemies;
+
+    // alte Form: Objekt pro Enemy, Bounds werden pro Test neu gebaut
+    static final class Box {
+        int x, y, size;
+        Box(int x, int y, int size) { this.x = x; this.y = y; this.size = size; }
+        Rectangle getBounds() { return new Rectangle(x - size, y - size, size * 2, size * 2); }
+    }
+
+    private final List<Box> boxes = new ArrayList<>();
+    private Archetype table;
+    private final int[] px = new int[POINTS], py = new int[POINTS];
+    private int playerX, playerY, playerSize = 30;
+
+    @Setup
+    public void setup() {
+        Random rnd = new Random(42);
+        table = new Archetype("enemies", Archetype.POSITION | Archetype.COLLIDER, enemies);
+        for (int i = 0; i < enemies; i++) {
+            int x = rnd.nextInt(1000), y = rnd.nextInt(800), s = 10 + rnd.nextInt(10);
+            boxes.add(new Box(x, y, s));
+            int row = table.add();
+            table.x[row] = x; table.y[row] = y; table.size[row] = s;
+        }
+        for (int k = 0; k < POINTS; k++) { px[k] = rnd.nextInt(1000); py[k] = rnd.nextInt(800); }
+        playerX = 500; playerY = 400;
+    }
+
+    @Benchmark
+    public int rectangle() {
+        int hits = 0;
+        for (Box b : boxes) {
+            Rectangle player = new Rectangle(playerX - playerSize / 2, playerY - playerSize / 2, playerSize, playerSize); // im Loop neu, wie bisher
+            if (player.intersects(b.getBounds())) hits++;
+        }
+        for (int k = 0; k < POINTS; k++)
+            for (Box b : boxes) if (b.getBounds().contains(px[k], py[k])) hits++;
+        return hits;
+    }
+
+    @Benchmark
+    public int aabb() {
+        int hits = 0, n = table.size();
+        int x0 = playerX - playerSize / 2, y0 = playerY - playerSize / 2;
+        for (int i = 0; i < n; i++) if (table.intersects(i, x0, y0, x0 + playerSize, y0 + playerSize)) hits++;
+        for (int k = 0; k < POINTS; k++)
+            for (int i = 0; i < n; i++) if (table.contains(i, px[k], py[k])) hits++;
+        return hits;
+    }
+}
@@ -0,0 +1,52 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bullets bewegen + Wall-Effekte (updateBullets) gegen 100 Walls, entfernte Bullets werden danach wieder aufgefüllt.
+ * Nur STOP- und THROUGH-Walls: SLOW/FREEZE halten Bullets fest, die Population würde über die Laufzeit driften.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BulletWallBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int population; // Bullets
+
+    private GameWorld world;
+    private SquareShooterUpgraded upgraded;
+
+    @Setup
+    public void setup() {
+        world = new GameWorld(60, new GameWorld.Config(), 42);
+        world.enableStress(false, 0, population, false);
+        upgraded = new SquareShooterUpgraded(1000, 800);
+        upgraded.enableStress(false, 0, population, false);
+        // 10 x 10 Walls à 30 x 30 über das ganze Spielfeld
+        for (int i = 0; i < 100; i++) {
+            int x = 20 + (i % 10) * 100, y = 20 + (i / 10) * 80;
+            boolean stop = (i & 1) == 0;
+            world.addWall(world.new Wall(x, y, 30, 30, stop ? GameWorld.Wall.Type.STOP : GameWorld.Wall.Type.THROUGH));
+            upgraded.addWall(upgraded.new Wall(x, y, 30, 30, stop ? SquareShooterUpgraded.Wall.Type.STOP : SquareShooterUpgraded.Wall.Type.THROUGH));
+        }
+        world.fillStress();
+        upgraded.fillStress();
+    }
+
+    @Benchmark
+    public void experimental() {
+        world.updateBullets();
+        world.fillStress();
+    }
+
+    @Benchmark
+    public void upgraded() {
+        upgraded.updateBullets();
+        upgraded.fillStress();
+    }
+}
@@ -0,0 +1,48 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kosten von Friendly-Fire (Taste F) pro Tick: feste Enemy-Zahl (Stress-Modus), vor jedem Tick werden die
+ * Enemy-Bullets auf 200 aufgefüllt (zufällige Richtungen im Ausschnitt, ohne Schaden, damit Treffer die Population
+ * nicht verändern). friendlyFire=false ist die Grundlinie, die Differenz ist die Enemy-Bullet-gegen-Enemy-Prüfung
+ * samt Grid-Aufbau.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class FriendlyFireBenchmark {
+    static final int ENEMY_BULLETS = 200;
+
+    @Param({"30", "300", "3000"})
+    public int enemies;
+
+    @Param({"false", "true"})
+    public boolean friendlyFire;
+
+    private GameWorld world;
+    private java.util.Random rnd;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+        world = new GameWorld(60, new GameWorld.Config(), 42);
+        world.enableStress(false, enemies, 0, false);
+        if (friendlyFire) world.toggleFriendlyFire();
+        rnd = new java.util.Random(7);
+    }
+
+    @Benchmark
+    public void tick() {
+        BulletPool b = world.enemyBullets();
+        while (b.size() < ENEMY_BULLETS) {
+            double a = rnd.nextDouble() * Math.PI * 2;
+            b.add(world.camX() + rnd.nextInt(world.screenW()), world.camY() + rnd.nextInt(world.screenH()), Math.cos(a) * 4, Math.sin(a) * 4, 0, -1);
+        }
+        world.tick();
+    }
+}
@@ -0,0 +1,37 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ein kompletter Simulationsschritt bei fester Population (Stress-Modus füllt Enemies und Bullets jeden Tick auf).
+ * experimental = GameWorld.tick(), upgraded = SquareShooterUpgraded.gameLoop().
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameLoopBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int population; // Enemies und Bullets
+
+    private GameWorld world;
+    private SquareShooterUpgraded upgraded;
+
+    @Setup
+    public void setup() {
+        world = new GameWorld(60, new GameWorld.Config(), 42);
+        world.enableStress(false, population, population, false);
+        upgraded = new SquareShooterUpgraded(1000, 800);
+        upgraded.enableStress(false, population, population, false);
+    }
+
+    @Benchmark
+    public void experimental() { world.tick(); }
+
+    @Benchmark
+    public void upgraded() { upgraded.gameLoop(); }
+}
@@ -0,0 +1,59 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Karte laden: Textform komplett parsen (text) gegen Binärkarte mappen und nur die Chunks um den Start-Ausschnitt
+ * dekodieren (binaryView, so lädt GameWorld) bzw. alle Chunks (binaryAll). Die Karten (40000x40000, zufällige Walls)
+ * werden im Setup in ein Temp-Verzeichnis geschrieben; Seitencache ist warm, gemessen wird Parsen/Dekodieren.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapLoadBenchmark {
+    @Param({"10000", "100000"})
+    public int walls;
+
+    private Path dir, text, binary;
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("maps");
+        text = dir.resolve("map.txt");
+        binary = dir.resolve("map.sqm");
+        MapFile.Builder b = MapFile.Builder.random(40000, 40000, walls, 42);
+        b.writeText(text);
+        b.write(binary);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(text);
+        Files.deleteIfExists(binary);
+        Files.deleteIfExists(dir);
+    }
+
+    @Benchmark
+    public int text() throws IOException { return MapFile.Builder.parse(text).walls; }
+
+    @Benchmark
+    public int binaryView(Blackhole bh) throws IOException {
+        MapFile map = MapFile.open(binary);
+        int x = map.worldW() / 2 - 500 - GameWorld.CHUNK, y = map.worldH() / 2 - 400 - GameWorld.CHUNK; // Ausschnitt + Chunk-Rand
+        return map.load(x, y, x + 1000 + 2 * GameWorld.CHUNK, y + 800 + 2 * GameWorld.CHUNK, (wx, wy, w, h, type, hp) -> bh.consume(wx + wy));
+    }
+
+    @Benchmark
+    public int binaryAll(Blackhole bh) throws IOException {
+        return MapFile.open(binary).loadAll((wx, wy, w, h, type, hp) -> bh.consume(wx + wy));
+    }
+}
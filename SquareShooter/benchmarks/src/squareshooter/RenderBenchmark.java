@@ -0,0 +1,49 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * paintComponent in ein Offscreen-BufferedImage (1000 x 800), ohne Fenster (java.awt.headless).
+ * experimental zeichnet aus dem veröffentlichten Snapshot, upgraded direkt aus seinen Listen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int population; // Enemies und Bullets
+
+    private SquareShooterExperimental view;
+    private SquareShooterUpgraded upgraded;
+    private BufferedImage image;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() {
+        GameWorld world = new GameWorld(60, new GameWorld.Config(), 42);
+        world.enableStress(false, population, population, false);
+        world.tick();
+        view = new SquareShooterExperimental(world); // veröffentlicht den Snapshot
+        upgraded = new SquareShooterUpgraded(1000, 800);
+        upgraded.enableStress(false, population, population, false);
+        upgraded.gameLoop();
+        image = new BufferedImage(1000, 800, BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+    }
+
+    @TearDown
+    public void tearDown() { g.dispose(); }
+
+    @Benchmark
+    public void experimental() { view.paintComponent(g); }
+
+    @Benchmark
+    public void upgraded() { upgraded.paintComponent(g); }
+}
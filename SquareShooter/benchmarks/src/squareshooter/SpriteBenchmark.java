@@ -0,0 +1,59 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enemies zeichnen: Atlas-Blits (atlas) gegen die bisherigen Vektor-Aufrufe (vector), headless in ein BufferedImage.
+ * Allokation pro Frame mit -prof gc (gc.alloc.rate.norm) - atlas soll bei 5000 Enemies bei ~0 B/op liegen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class SpriteBenchmark {
+    @Param({"5000"})
+    public int population;
+
+    private SquareShooterExperimental view;
+    private final WorldSnapshot snapshot = new WorldSnapshot();
+    private BufferedImage image;
+    private Graphics2D g;
+
+    @Setup
+    public void setup() {
+        GameWorld world = new GameWorld(60, new GameWorld.Config(), 42);
+        world.enableStress(false, population, 0, false);
+        world.tick();
+        world.writeSnapshot(snapshot);
+        view = new SquareShooterExperimental(world);
+        view.initSprites(null);
+        image = new BufferedImage(1000, 800, BufferedImage.TYPE_INT_RGB);
+        g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+    }
+
+    @TearDown
+    public void tearDown() { g.dispose(); }
+
+    @Benchmark
+    public void atlas() { view.drawEnemies(g, snapshot, 1); }
+
+    @Benchmark
+    public void vector() {
+        WorldSnapshot s = snapshot;
+        for (int i = 0; i < s.enemyCount; i++) {
+            int x = s.enemyX[i], y = s.enemyY[i], size = s.enemySize[i];
+            SpriteAtlas.paintEnemy(g, x, y, size, s.enemyType[i]);
+            g.setColor(Color.GREEN);
+            g.fillRect(x - size, y - size - 10, (int) (size * 2 * (s.enemyHp[i] / (double) s.enemyMaxHp[i])), 6);
+        }
+    }
+}
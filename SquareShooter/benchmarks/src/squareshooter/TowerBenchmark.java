@@ -0,0 +1,57 @@
+package squareshooter;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tower-Update: Zielsuche. experimental fragt das Enemy-Grid des Ticks ab (Policy per Parameter),
+ * upgraded scannt alle Enemies. Der Cooldown wird vor jedem Aufruf zurückgesetzt, damit jeder Aufruf
+ * wirklich sucht und schießt; die Schüsse werden regelmäßig verworfen.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class TowerBenchmark {
+    @Param({"10", "100", "1000", "10000"})
+    public int population; // Enemies
+
+    @Param({"NEAREST", "LOWEST_HP", "HIGHEST_TYPE"})
+    public String targeting; // nur experimental
+
+    private GameWorld world;
+    private int tower; // Zeile in world.towers()
+    private SquareShooterUpgraded upgraded;
+    private SquareShooterUpgraded.Tower upgradedTower;
+
+    @Setup
+    public void setup() {
+        world = new GameWorld(60, new GameWorld.Config(), 42);
+        world.enableStress(false, population, 0, false);
+        world.fillStress();
+        world.rebuildEnemyGrid();
+        tower = world.addTower(500, 400);
+        world.towers().targeting[tower] = GameWorld.Targeting.valueOf(targeting).ordinal();
+        upgraded = new SquareShooterUpgraded(1000, 800);
+        upgraded.enableStress(false, population, 0, false);
+        upgraded.fillStress();
+        upgradedTower = upgraded.new Tower(500, 400);
+    }
+
+    @Benchmark
+    public void experimental() {
+        world.towers().lastFire[tower] = -1_000; // Cooldown immer abgelaufen (Spielzeit 0)
+        world.updateTower(tower, 0);
+        if (world.bullets().size() > 1000) world.bullets().clear();
+    }
+
+    @Benchmark
+    public void upgraded() {
+        upgradedTower.lastShotTime = Double.NEGATIVE_INFINITY;
+        upgradedTower.update(upgraded.enemies(), upgraded.bullets());
+        if (upgraded.bullets().size() > 1000) upgraded.bullets().clear();
+    }
+}
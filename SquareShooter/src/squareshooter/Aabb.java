@@ -0,0 +1,52 @@
+package squareshooter;
+
+/**
+ * Aabb - Kollisions-Primitive auf achsenparallelen int-Rechtecken [minX, maxX) x [minY, maxY), ohne Objekte.
+ * Ersetzt das frühere getBounds() mit einem neuen java.awt.Rectangle pro Aufruf: die Grenzen liegen als Felder bzw.
+ * Array-Spalten vor (Archetype, WallIndex), die Tests sind reine int-Vergleiche - gleiche Ergebnisse wie Rectangle.
+ *
+ * segmentEntry ist der Slab-Test für bewegte Punkte (Bullets): statt nur die Position nach dem Tick zu prüfen, wird die
+ * ganze Strecke des Ticks getestet - schnelle Bullets können dünne Walls und kleine Enemies nicht mehr überspringen.
+ */
+final class Aabb {
+    private Aabb() {}
+
+    /** Punkt im halboffenen Rechteck, wie Rectangle.contains. */
+    static boolean contains(int minX, int minY, int maxX, int maxY, int px, int py) {
+        return px >= minX && px < maxX && py >= minY && py < maxY;
+    }
+
+    /** Zwei halboffene Rechtecke überlappen (Kanten berühren zählt nicht), wie Rectangle.intersects. */
+    static boolean intersects(int minX, int minY, int maxX, int maxY, int minX2, int minY2, int maxX2, int maxY2) {
+        return minX < maxX2 && minX2 < maxX && minY < maxY2 && minY2 < maxY;
+    }
+
+    /**
+     * Anteil t in [0, 1] der Strecke (x0, y0) -> (x1, y1), an dem sie das Rechteck zuerst berührt (0 = Start liegt
+     * schon drin), -1 wenn sie es verfehlt. Halboffen wie contains: eine Strecke, die nur entlang maxX/maxY läuft
+     * oder dort endet, trifft nicht; eine Strecke der Länge 0 trifft genau dann, wenn contains den Punkt enthält.
+     */
+    static double segmentEntry(double x0, double y0, double x1, double y1, int minX, int minY, int maxX, int maxY) {
+        // Menge der t, in denen der Punkt drin liegt: pro Achse ein Intervall, min-Seite geschlossen, max-Seite offen
+        double lo = 0, hi = 1;
+        boolean loClosed = true, hiClosed = true;
+        for (int axis = 0; axis < 2; axis++) {
+            double p = axis == 0 ? x0 : y0, d = axis == 0 ? x1 - x0 : y1 - y0;
+            int min = axis == 0 ? minX : minY, max = axis == 0 ? maxX : maxY;
+            if (d == 0) {
+                if (p < min || p >= max) return -1;
+                continue;
+            }
+            double a = (min - p) / d, b = (max - p) / d;
+            double l = d > 0 ? a : b, h = d > 0 ? b : a; // d > 0: [a, b), d < 0: (b, a]
+            boolean lc = d > 0, hc = d < 0;
+            if (l > lo || (l == lo && !lc)) { lo = l; loClosed = lc; }
+            if (h < hi || (h == hi && !hc)) { hi = h; hiClosed = hc; }
+        }
+        return lo < hi || (lo == hi && loClosed && hiClosed) ? Math.max(0, lo) : -1; // max: -0.0 -> 0
+    }
+
+    static boolean segmentIntersects(double x0, double y0, double x1, double y1, int minX, int minY, int maxX, int maxY) {
+        return segmentEntry(x0, y0, x1, y1, minX, minY, maxX, maxY) >= 0;
+    }
+}
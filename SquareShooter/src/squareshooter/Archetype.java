@@ -0,0 +1,140 @@
+package squareshooter;
+
+import java.util.Arrays;
+
+/**
+ * Archetype - alle Entities mit derselben Komponenten-Kombination in einer gepackten Tabelle (Structure-of-Arrays).
+ *
+ * Eine Zeile = eine Entity, jede Komponente = ein paar parallele Arrays; nur die Komponenten aus mask werden angelegt.
+ * Systeme laufen linear über die Zeilen 0 .. size() - 1 der Archetypes, die ihre Komponenten haben (has()).
+ * Neue Entity-Art = neues Archetype mit passender Maske, die vorhandenen Systeme greifen dann automatisch.
+ *
+ * Zeilen sind nicht stabil: Entfernen geschieht per Kompaktierung (move + truncate, Reihenfolge bleibt erhalten).
+ * Für Verweise über einen Tick hinaus (z.B. Bullet-Owner) gibt es id(row), eindeutig pro Archetype.
+ * Die Arrays wachsen nur bei Überlauf - danach ohne Garbage. Bullets liegen mit double-Positionen im BulletPool.
+ */
+final class Archetype {
+    // --- Komponenten (Bitmaske) ---
+    static final int POSITION = 1;   // x, y, prevX, prevY (Mittelpunkt, prev = vorheriger Tick für Interpolation)
+    static final int VELOCITY = 2;   // vx, vy (Schritt pro Tick, vom Steuer-System gesetzt)
+    static final int HEALTH = 4;     // hp, maxHp
+    static final int COLLIDER = 8;   // size: halbe Kantenlänge, Bounds halboffen [x - size, x + size)
+    static final int WEAPON = 16;    // lastFire (Spielzeit ms), range, level, targeting (Targeting-Ordinal)
+    static final int RENDERABLE = 32; // type: Sprite-Variante (bei Enemies auch das Verhalten)
+    static final int LIFETIME = 64;  // born (Spielzeit ms)
+
+    final String name;
+    final int mask;
+    private int count = 0, nextId = 0;
+
+    int[] id;
+    int[] x, y, prevX, prevY;
+    double[] vx, vy;
+    int[] hp, maxHp;
+    int[] size;
+    long[] lastFire;
+    int[] range, level, targeting;
+    int[] type;
+    long[] born;
+
+    Archetype(String name, int mask, int capacity) {
+        this.name = name;
+        this.mask = mask;
+        id = new int[capacity];
+        if (has(POSITION)) { x = new int[capacity]; y = new int[capacity]; prevX = new int[capacity]; prevY = new int[capacity]; }
+        if (has(VELOCITY)) { vx = new double[capacity]; vy = new double[capacity]; }
+        if (has(HEALTH)) { hp = new int[capacity]; maxHp = new int[capacity]; }
+        if (has(COLLIDER)) size = new int[capacity];
+        if (has(WEAPON)) { lastFire = new long[capacity]; range = new int[capacity]; level = new int[capacity]; targeting = new int[capacity]; }
+        if (has(RENDERABLE)) type = new int[capacity];
+        if (has(LIFETIME)) born = new long[capacity];
+    }
+
+    boolean has(int components) { return (mask & components) == components; }
+    int size() { return count; }
+    boolean isEmpty() { return count == 0; }
+    int id(int row) { return id[row]; }
+
+    /** Neue Zeile am Ende (Komponenten auf 0), liefert den Zeilenindex; Werte setzt der Aufrufer. */
+    int add() {
+        if (count == id.length) grow(Math.max(16, count * 2));
+        int r = count++;
+        id[r] = nextId++;
+        if (x != null) { x[r] = 0; y[r] = 0; prevX[r] = 0; prevY[r] = 0; }
+        if (vx != null) { vx[r] = 0; vy[r] = 0; }
+        if (hp != null) { hp[r] = 0; maxHp[r] = 0; }
+        if (size != null) size[r] = 0;
+        if (lastFire != null) { lastFire[r] = 0; range[r] = 0; level[r] = 0; targeting[r] = 0; }
+        if (type != null) type[r] = 0;
+        if (born != null) born[r] = 0;
+        return r;
+    }
+
+    /** Kopiert Zeile from auf Zeile to (alle Komponenten) - Baustein für das Kompaktieren. */
+    void move(int from, int to) {
+        if (from != to) copy(this, from, to);
+    }
+
+    /** Hängt Zeile row aus src (gleiche Maske) an, mit ihrer id - zum Verschieben zwischen Tabellen (z.B. Chunks). */
+    int append(Archetype src, int row) {
+        if (count == id.length) grow(Math.max(16, count * 2));
+        int r = count++;
+        copy(src, row, r);
+        return r;
+    }
+
+    private void copy(Archetype src, int from, int to) {
+        id[to] = src.id[from];
+        if (x != null) { x[to] = src.x[from]; y[to] = src.y[from]; prevX[to] = src.prevX[from]; prevY[to] = src.prevY[from]; }
+        if (vx != null) { vx[to] = src.vx[from]; vy[to] = src.vy[from]; }
+        if (hp != null) { hp[to] = src.hp[from]; maxHp[to] = src.maxHp[from]; }
+        if (size != null) size[to] = src.size[from];
+        if (lastFire != null) { lastFire[to] = src.lastFire[from]; range[to] = src.range[from]; level[to] = src.level[from]; targeting[to] = src.targeting[from]; }
+        if (type != null) type[to] = src.type[from];
+        if (born != null) born[to] = src.born[from];
+    }
+
+    /** Entfernt Zeile row, alle dahinter rücken auf (Reihenfolge bleibt). Viele auf einmal: move + truncate. */
+    void remove(int row) {
+        for (int r = row + 1; r < count; r++) move(r, r - 1);
+        count--;
+    }
+
+    /** Behält nur die ersten n Zeilen. */
+    void truncate(int n) { count = n; }
+
+    void clear() { count = 0; } // ids laufen weiter, alte Verweise (Bullet-Owner) treffen nie eine neue Entity
+
+    /** Merkt sich die aktuellen Positionen als vorherigen Zustand. */
+    void savePrevious() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    // --- Abfragen auf einer Zeile (COLLIDER + POSITION) ---
+    boolean contains(int row, int px, int py) {
+        int s = size[row];
+        return Aabb.contains(x[row] - s, y[row] - s, x[row] + s, y[row] + s, px, py);
+    }
+
+    boolean intersects(int row, int x0, int y0, int x1, int y1) {
+        int s = size[row];
+        return Aabb.intersects(x[row] - s, y[row] - s, x[row] + s, y[row] + s, x0, y0, x1, y1);
+    }
+
+    boolean intersectsSegment(int row, double x0, double y0, double x1, double y1) {
+        int s = size[row];
+        return Aabb.segmentIntersects(x0, y0, x1, y1, x[row] - s, y[row] - s, x[row] + s, y[row] + s);
+    }
+
+    private void grow(int cap) {
+        id = Arrays.copyOf(id, cap);
+        if (x != null) { x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap); prevX = Arrays.copyOf(prevX, cap); prevY = Arrays.copyOf(prevY, cap); }
+        if (vx != null) { vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap); }
+        if (hp != null) { hp = Arrays.copyOf(hp, cap); maxHp = Arrays.copyOf(maxHp, cap); }
+        if (size != null) size = Arrays.copyOf(size, cap);
+        if (lastFire != null) { lastFire = Arrays.copyOf(lastFire, cap); range = Arrays.copyOf(range, cap); level = Arrays.copyOf(level, cap); targeting = Arrays.copyOf(targeting, cap); }
+        if (type != null) type = Arrays.copyOf(type, cap);
+        if (born != null) born = Arrays.copyOf(born, cap);
+    }
+}
@@ -0,0 +1,80 @@
+package squareshooter;
+
+import java.util.Arrays;
+
+/**
+ * BulletPool - Bullets als Structure-of-Arrays (x, y, vx, vy, damage, owner = Entity-id des Schützen oder -1).
+ *
+ * Statt einem Objekt pro Schuss gibt es nur Indizes 0 .. size() - 1. remove(i) kopiert die letzte
+ * Bullet auf Platz i (swap-remove, O(1)), die Reihenfolge ist danach also nicht stabil.
+ * Beim Durchlaufen mit Entfernen deshalb i nicht erhöhen, wenn i entfernt wurde.
+ * Die Arrays wachsen nur, wenn die Kapazität überschritten wird - danach schießt das Spiel ohne Garbage.
+ * add/remove/clear melden JFR-Events (GameEvents.BulletLifecycle) mit dem Pool-Namen, wenn eine Aufnahme sie will.
+ */
+final class BulletPool {
+    double[] x, y, vx, vy;
+    double[] px, py; // Position im vorherigen Tick (Interpolation beim Rendern)
+    int[] damage, owner;
+    private int size = 0;
+    private final String name;
+
+    BulletPool(int capacity, String name) {
+        this.name = name;
+        x = new double[capacity]; y = new double[capacity];
+        vx = new double[capacity]; vy = new double[capacity];
+        px = new double[capacity]; py = new double[capacity];
+        damage = new int[capacity];
+        owner = new int[capacity];
+    }
+
+    int size() { return size; }
+    boolean isEmpty() { return size == 0; }
+
+    int add(double bx, double by, double bvx, double bvy, int dmg, int own) {
+        if (size == x.length) grow();
+        int i = size++;
+        x[i] = bx; y[i] = by; vx[i] = bvx; vy[i] = bvy;
+        px[i] = bx; py[i] = by;
+        damage[i] = dmg;
+        owner[i] = own;
+        GameEvents.bullet(true, name, bx, by, dmg);
+        return i;
+    }
+
+    /** Entfernt Bullet i, die letzte Bullet rückt auf Platz i nach. */
+    void remove(int i) {
+        GameEvents.bullet(false, name, x[i], y[i], damage[i]);
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last]; y[i] = y[last]; vx[i] = vx[last]; vy[i] = vy[last];
+            px[i] = px[last]; py[i] = py[last];
+            damage[i] = damage[last];
+            owner[i] = owner[last];
+        }
+    }
+
+    /** Bewegt alle Bullets um ihre Geschwindigkeit. */
+    void move() {
+        for (int i = 0; i < size; i++) { x[i] += vx[i]; y[i] += vy[i]; }
+    }
+
+    /** Merkt sich die aktuellen Positionen als vorherigen Zustand. */
+    void savePrevious() {
+        System.arraycopy(x, 0, px, 0, size);
+        System.arraycopy(y, 0, py, 0, size);
+    }
+
+    void clear() {
+        if (GameEvents.bulletEnabled()) for (int i = 0; i < size; i++) GameEvents.bullet(false, name, x[i], y[i], damage[i]);
+        size = 0;
+    }
+
+    private void grow() {
+        int cap = x.length * 2;
+        x = Arrays.copyOf(x, cap); y = Arrays.copyOf(y, cap);
+        vx = Arrays.copyOf(vx, cap); vy = Arrays.copyOf(vy, cap);
+        px = Arrays.copyOf(px, cap); py = Arrays.copyOf(py, cap);
+        damage = Arrays.copyOf(damage, cap);
+        owner = Arrays.copyOf(owner, cap);
+    }
+}
@@ -0,0 +1,63 @@
+package squareshooter;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+
+/**
+ * CachedLayer - transparente Bild-Ebene für selten wechselnde Inhalte (Walls, HUD), pro Frame nur ein drawImage.
+ *
+ * Auf dem Bildschirm eine beschleunigte VolatileImage; ohne GraphicsConfiguration (headless, Benchmarks)
+ * eine BufferedImage. prepare() sagt, ob der Inhalt neu gezeichnet werden muss: neu angelegt, Größe geändert,
+ * invalidate() aufgerufen oder der VRAM-Inhalt ging verloren (validate/contentsLost).
+ */
+final class CachedLayer {
+    private Image image;
+    private int width, height;
+    private boolean dirty = true;
+
+    /** Inhalt beim nächsten prepare() neu zeichnen. */
+    void invalidate() { dirty = true; }
+
+    /** Stellt eine Ebene der Größe w x h bereit; true = Inhalt ist ungültig und muss neu gezeichnet werden. */
+    boolean prepare(GraphicsConfiguration gc, int w, int h) {
+        if (image == null || width != w || height != h || (image instanceof VolatileImage) != (gc != null)) {
+            create(gc, w, h);
+        } else if (image instanceof VolatileImage) {
+            int status = ((VolatileImage) image).validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) create(gc, w, h);
+            else if (status == VolatileImage.IMAGE_RESTORED) dirty = true;
+        }
+        boolean redraw = dirty;
+        dirty = false;
+        return redraw;
+    }
+
+    /** Graphics auf die geleerte (transparente) Ebene; nach dem Zeichnen dispose(). */
+    Graphics2D begin() {
+        Graphics2D g = (Graphics2D) image.getGraphics();
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, width, height);
+        g.setComposite(AlphaComposite.SrcOver);
+        return g;
+    }
+
+    void draw(Graphics g, int x, int y) {
+        g.drawImage(image, x, y, null);
+        if (image instanceof VolatileImage && ((VolatileImage) image).contentsLost()) dirty = true;
+    }
+
+    private void create(GraphicsConfiguration gc, int w, int h) {
+        if (image != null) image.flush();
+        image = gc != null ? gc.createCompatibleVolatileImage(w, h, Transparency.TRANSLUCENT)
+                           : new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+        width = w;
+        height = h;
+        dirty = true;
+    }
+}
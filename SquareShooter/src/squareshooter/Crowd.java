@@ -0,0 +1,107 @@
+package squareshooter;
+
+import java.util.Arrays;
+
+/**
+ * Crowd - Schwarmkräfte (Boids) für eine Enemy-Tabelle: Separation (nicht überlappen), Kohäsion (leicht zur Gruppe)
+ * und Ausweichen vor gesperrten Flow-Field-Zellen (Walls). Ergebnis pro Zeile in fx/fy, Einheit "Anteil der eigenen
+ * Geschwindigkeit" - das Enemy-System addiert es zur Richtung zum Spieler.
+ *
+ * Nachbarn kommen aus einem Grid, das jeden Tick per Counting-Sort gebaut wird (Zellen = zusammenhängende Abschnitte in
+ * order, Zeilen darin aufsteigend). Pro Enemy werden die 3x3 Zellen um sie herum gelesen, aus jeder höchstens perCell
+ * Einträge: auch wenn tausende Enemies auf einem Haufen stehen, bleibt der Aufwand linear in der Enemy-Zahl.
+ * Alles in Arrays, keine Allokation nach dem Aufwärmen; gleiche Eingabe = gleiche Kräfte (Replay).
+ */
+final class Crowd {
+    static final double SEPARATION = 3.0, COHESION = 0.15, AVOIDANCE = 1.0;
+    // Fluchtrichtungen für Enemies auf demselben Pixel, pro Entity-id fest (id * 37 mischt aufeinanderfolgende ids)
+    private static final double[] ESCAPE_X = new double[64], ESCAPE_Y = new double[64];
+    static {
+        for (int k = 0; k < 64; k++) { ESCAPE_X[k] = StrictMath.cos(k * Math.PI / 32); ESCAPE_Y[k] = StrictMath.sin(k * Math.PI / 32); }
+    }
+
+    private final int cellSize, perCell;
+    private int originX, originY, cols = 1, rows = 1;
+    private int[] cellStart = new int[2];  // Zelle c = order[cellStart[c] .. cellStart[c + 1])
+    private int[] cellOf = new int[16];
+    private int[] order = new int[16];
+    private int[] sx = new int[16], sy = new int[16], ss = new int[16]; // x, y, size in Zellen-Reihenfolge (zusammenhängend lesen)
+    double[] fx = new double[16], fy = new double[16];
+
+    Crowd(int cellSize, int perCell) {
+        this.cellSize = cellSize;
+        this.perCell = perCell;
+    }
+
+    /**
+     * Kräfte für alle Zeilen von a (POSITION + COLLIDER) aus den Positionen zu Beginn des Ticks. Das Grid deckt
+     * [minX, maxX) x [minY, maxY) ab, Enemies außerhalb zählen zur Randzelle. walls = Flow-Field der Enemies.
+     */
+    void update(Archetype a, int minX, int minY, int maxX, int maxY, FlowField walls) {
+        int n = a.size();
+        int[] x = a.x, y = a.y, size = a.size, id = a.id;
+        originX = minX; originY = minY;
+        cols = Math.max(1, (maxX - minX + cellSize - 1) / cellSize);
+        rows = Math.max(1, (maxY - minY + cellSize - 1) / cellSize);
+        int cells = cols * rows, radius2 = 4 * cellSize * cellSize; // Nachbarn: bis 2 Zellen Abstand
+        if (cellStart.length < cells + 1) cellStart = new int[cells + 1];
+        if (order.length < n) {
+            order = new int[n]; cellOf = new int[n]; fx = new double[n]; fy = new double[n];
+            sx = new int[n]; sy = new int[n]; ss = new int[n];
+        }
+
+        // --- Counting-Sort nach Zelle ---
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (int i = 0; i < n; i++) {
+            int c = row(y[i]) * cols + col(x[i]);
+            cellOf[i] = c;
+            cellStart[c + 1]++;
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        for (int i = 0; i < n; i++) order[cellStart[cellOf[i]]++] = i;
+        for (int c = cells; c > 0; c--) cellStart[c] = cellStart[c - 1]; // beim Füllen um eine Zelle verschoben
+        cellStart[0] = 0;
+        for (int k = 0; k < n; k++) { int i = order[k]; sx[k] = x[i]; sy[k] = y[i]; ss[k] = size[i]; }
+
+        // --- Kräfte (in Zellen-Reihenfolge, Nachbarn liegen dann meist schon im Cache) ---
+        for (int self = 0; self < n; self++) {
+            int i = order[self], xi = sx[self], yi = sy[self], si = ss[self];
+            int c0 = cellOf[i] % cols, r0 = cellOf[i] / cols;
+            double sepX = 0, sepY = 0, sumX = 0, sumY = 0;
+            int near = 0, same = 0;
+            for (int r = Math.max(0, r0 - 1); r <= Math.min(rows - 1, r0 + 1); r++)
+                for (int c = Math.max(0, c0 - 1); c <= Math.min(cols - 1, c0 + 1); c++) {
+                    int cell = r * cols + c, end = Math.min(cellStart[cell + 1], cellStart[cell] + perCell);
+                    for (int k = cellStart[cell]; k < end; k++) {
+                        if (k == self) continue;
+                        int dx = xi - sx[k], dy = yi - sy[k];
+                        int d2 = dx * dx + dy * dy;
+                        if (d2 >= radius2) continue;
+                        sumX += sx[k]; sumY += sy[k]; near++;
+                        if (d2 == 0) { same++; continue; }
+                        int minDist = si + ss[k];
+                        if (d2 >= minDist * minDist) continue;
+                        double push = (double) (minDist * minDist - d2) / (minDist * minDist * minDist); // weich, ohne sqrt
+                        sepX += dx * push; sepY += dy * push;
+                    }
+                }
+            if (same > 0) { // gleicher Pixel: jede Enemy in ihre eigene Richtung, sonst heben sich die Stöße auf
+                int e = (id[i] * 37) & 63;
+                sepX += same * ESCAPE_X[e]; sepY += same * ESCAPE_Y[e];
+            }
+            double cohX = 0, cohY = 0;
+            if (near > 0) { cohX = (sumX / near - xi) / (2 * cellSize); cohY = (sumY / near - yi) / (2 * cellSize); }
+            double avoidX = 0, avoidY = 0;
+            int reach = si + 8; // gesperrte Zelle knapp neben der eigenen Kante: weg davon
+            if (walls.blocked(xi + reach, yi)) avoidX--;
+            if (walls.blocked(xi - reach, yi)) avoidX++;
+            if (walls.blocked(xi, yi + reach)) avoidY--;
+            if (walls.blocked(xi, yi - reach)) avoidY++;
+            fx[i] = SEPARATION * sepX + COHESION * cohX + AVOIDANCE * avoidX;
+            fy[i] = SEPARATION * sepY + COHESION * cohY + AVOIDANCE * avoidY;
+        }
+    }
+
+    private int col(int x) { return Math.max(0, Math.min(cols - 1, Math.floorDiv(x - originX, cellSize))); }
+    private int row(int y) { return Math.max(0, Math.min(rows - 1, Math.floorDiv(y - originY, cellSize))); }
+}
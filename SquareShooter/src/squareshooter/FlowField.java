@@ -0,0 +1,170 @@
+package squareshooter;
+
+import java.util.Arrays;
+
+/**
+ * FlowField - Wegfindung für alle Enemies auf einmal: ein grobes Grid über den aktiven Bereich, eine Breitensuche vom
+ * Ziel (Spieler-Zelle) aus, danach kennt jede Zelle die Richtung zum Nachbarn mit der kleinsten Distanz.
+ *
+ * Eine Enemy schaut nur noch direction(x, y) nach (O(1)) und steuert auf die Mitte der Nachbarzelle zu (nextX/nextY). Eine Zelle ist gesperrt, wenn eine
+ * blockierende Wall mehr als einen schmalen Randstreifen davon bedeckt (block). Diagonal geht es nur, wenn beide
+ * Nachbarn daneben frei sind - so schneidet niemand Wand-Ecken.
+ *
+ * compute() rechnet alles neu (Ziel gewechselt), repair() nach unblock() nur den Bereich, in dem Distanzen kleiner
+ * werden (zerstörte Wall): Entfernen kann Wege nur verkürzen, also reicht eine Relaxation ab den Nachbarn der frei
+ * gewordenen Zellen. Alles in Arrays, nach dem Aufwärmen keine Allokation.
+ */
+final class FlowField {
+    static final int NONE = -1;
+    // Richtungen 0..7 im Uhrzeigersinn ab Osten (y wächst nach unten)
+    private static final int[] DC = {1, 1, 0, -1, -1, -1, 0, 1}, DR = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final int cellSize, inset;
+    private int originX, originY, cols = 1, rows = 1;
+    private int target = -1; // Zelle, von der aus gerechnet wurde
+
+    private boolean[] blocked = new boolean[1];
+    private int[] dist = new int[1];
+    private byte[] dir = new byte[1];
+    private int[] queue = new int[1];      // Ringpuffer, jede Zelle höchstens einmal drin (queued)
+    private boolean[] queued = new boolean[1];
+
+    FlowField(int cellSize) {
+        this.cellSize = cellSize;
+        this.inset = cellSize / 8;
+    }
+
+    /** Neuer Bereich [minX, maxX) x [minY, maxY), alle Zellen frei und unerreicht; danach block() + compute(). */
+    void reset(int minX, int minY, int maxX, int maxY) {
+        originX = minX; originY = minY;
+        cols = Math.max(1, (maxX - minX + cellSize - 1) / cellSize);
+        rows = Math.max(1, (maxY - minY + cellSize - 1) / cellSize);
+        int cells = cols * rows;
+        if (blocked.length < cells) {
+            blocked = new boolean[cells]; dist = new int[cells]; dir = new byte[cells];
+            queue = new int[cells]; queued = new boolean[cells];
+        }
+        Arrays.fill(blocked, 0, cells, false);
+        Arrays.fill(dist, 0, cells, UNREACHED);
+        Arrays.fill(dir, 0, cells, (byte) NONE);
+        target = -1;
+    }
+
+    /** Sperrt die Zellen, die das halboffene Rechteck (abzüglich inset am Zellrand) schneidet. */
+    void block(int x0, int y0, int x1, int y1) { mark(x0, y0, x1, y1, true); }
+
+    /** Gibt die Zellen wieder frei; blockierende Walls, die sie noch berühren, sperrt der Aufrufer danach erneut. */
+    void unblock(int x0, int y0, int x1, int y1) { mark(x0, y0, x1, y1, false); }
+
+    private void mark(int x0, int y0, int x1, int y1, boolean value) {
+        int c0 = Math.max(0, Math.floorDiv(x0 - originX + inset, cellSize)), c1 = Math.min(cols - 1, Math.floorDiv(x1 - 1 - originX - inset, cellSize));
+        int r0 = Math.max(0, Math.floorDiv(y0 - originY + inset, cellSize)), r1 = Math.min(rows - 1, Math.floorDiv(y1 - 1 - originY - inset, cellSize));
+        for (int r = r0; r <= r1; r++)
+            for (int c = c0; c <= c1; c++) blocked[r * cols + c] = value;
+    }
+
+    /** Zelle des Punkts oder -1 außerhalb. */
+    int cellOf(int x, int y) {
+        int c = Math.floorDiv(x - originX, cellSize), r = Math.floorDiv(y - originY, cellSize);
+        return c < 0 || r < 0 || c >= cols || r >= rows ? -1 : r * cols + c;
+    }
+
+    int target() { return target; }
+
+    /** true wenn der Punkt in einer gesperrten Zelle liegt (außerhalb: false). */
+    boolean blocked(int x, int y) {
+        int cell = cellOf(x, y);
+        return cell >= 0 && blocked[cell];
+    }
+
+    /** Breitensuche vom Punkt (tx, ty) aus (auf den Bereich geklemmt; die Ziel-Zelle selbst darf gesperrt sein). */
+    void compute(int tx, int ty) {
+        int cells = cols * rows;
+        Arrays.fill(dist, 0, cells, UNREACHED);
+        int c = Math.max(0, Math.min(cols - 1, Math.floorDiv(tx - originX, cellSize)));
+        int r = Math.max(0, Math.min(rows - 1, Math.floorDiv(ty - originY, cellSize)));
+        target = r * cols + c;
+        dist[target] = 0;
+        int head = 0, tail = 0;
+        queue[tail++] = target;
+        queued[target] = true;
+        while (head < tail) {
+            int cell = queue[head++ % cells];
+            queued[cell] = false;
+            tail = relax(cell, tail, cells);
+        }
+        updateDirections(0, 0, cols - 1, rows - 1);
+    }
+
+    /**
+     * Nach unblock() (und erneutem block() der übrigen Walls): Distanzen ab dem Rechteck neu propagieren, nur solange
+     * sie kleiner werden, danach die Richtungen der geänderten Zellen und ihrer Nachbarn neu bestimmen.
+     */
+    void repair(int x0, int y0, int x1, int y1) {
+        if (target < 0) return;
+        int cells = cols * rows;
+        int c0 = Math.max(0, Math.floorDiv(x0 - originX, cellSize) - 1), c1 = Math.min(cols - 1, Math.floorDiv(x1 - 1 - originX, cellSize) + 1);
+        int r0 = Math.max(0, Math.floorDiv(y0 - originY, cellSize) - 1), r1 = Math.min(rows - 1, Math.floorDiv(y1 - 1 - originY, cellSize) + 1);
+        if (c0 > c1 || r0 > r1) return;
+        int head = 0, tail = 0;
+        for (int r = r0; r <= r1; r++)
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c;
+                if (dist[cell] != UNREACHED && (!blocked[cell] || cell == target)) { queue[tail++ % cells] = cell; queued[cell] = true; }
+            }
+        int minC = c0, minR = r0, maxC = c1, maxR = r1;
+        while (head < tail) {
+            int cell = queue[head++ % cells];
+            queued[cell] = false;
+            int before = tail;
+            tail = relax(cell, tail, cells);
+            for (int k = before; k < tail; k++) { // Bereich der geänderten Zellen mitführen
+                int n = queue[k % cells], nc = n % cols, nr = n / cols;
+                minC = Math.min(minC, nc); maxC = Math.max(maxC, nc); minR = Math.min(minR, nr); maxR = Math.max(maxR, nr);
+            }
+        }
+        updateDirections(Math.max(0, minC - 1), Math.max(0, minR - 1), Math.min(cols - 1, maxC + 1), Math.min(rows - 1, maxR + 1));
+    }
+
+    // freie 4er-Nachbarn von cell verbessern und anhängen, liefert das neue Queue-Ende
+    private int relax(int cell, int tail, int cells) {
+        int c = cell % cols, r = cell / cols, d = dist[cell] + 1;
+        for (int k = 0; k < 8; k += 2) {
+            int nc = c + DC[k], nr = r + DR[k];
+            if (nc < 0 || nr < 0 || nc >= cols || nr >= rows) continue;
+            int n = nr * cols + nc;
+            if (blocked[n] || dist[n] <= d) continue;
+            dist[n] = d;
+            if (!queued[n]) { queue[tail++ % cells] = n; queued[n] = true; }
+        }
+        return tail;
+    }
+
+    // pro Zelle der Nachbar mit der kleinsten Distanz (auch für gesperrte Zellen, damit Enemies an einer Wand rausfinden)
+    private void updateDirections(int c0, int r0, int c1, int r1) {
+        for (int r = r0; r <= r1; r++)
+            for (int c = c0; c <= c1; c++) {
+                int cell = r * cols + c, best = NONE, bestDist = dist[cell];
+                for (int k = 0; k < 8; k++) {
+                    int nc = c + DC[k], nr = r + DR[k];
+                    if (nc < 0 || nr < 0 || nc >= cols || nr >= rows) continue;
+                    int n = nr * cols + nc;
+                    if (blocked[n] || dist[n] >= bestDist) continue;
+                    if ((k & 1) == 1 && (blocked[r * cols + nc] || blocked[nr * cols + c])) continue; // keine Ecken schneiden
+                    best = k; bestDist = dist[n];
+                }
+                dir[cell] = (byte) best;
+            }
+    }
+
+    /** Richtung 0..7 für den Punkt, NONE außerhalb, in der Ziel-Zelle oder ohne Weg. */
+    int direction(int x, int y) {
+        int cell = cellOf(x, y);
+        return cell < 0 ? NONE : dir[cell];
+    }
+
+    // Mittelpunkt der Nachbarzelle in Richtung d - darauf zu steuern hält Abstand zu Wänden, an denen der Weg entlangführt
+    int nextX(int x, int d) { return originX + (Math.floorDiv(x - originX, cellSize) + DC[d]) * cellSize + cellSize / 2; }
+    int nextY(int y, int d) { return originY + (Math.floorDiv(y - originY, cellSize) + DR[d]) * cellSize + cellSize / 2; }
+}
@@ -0,0 +1,42 @@
+package squareshooter;
+
+/**
+ * GameClock - Spielzeit für alle Timer (Reload, Shield, Cooldowns, Health-Pack-Ablauf, Enemy-Fähigkeiten, Tower-Schüsse).
+ *
+ * Läuft nur mit den Ticks: advance() einmal pro Tick, um einen festen Schritt (1/simHz), solange das Spiel nicht
+ * angehalten ist (Pause, Tower-Platzieren) - keine Wanduhr, also weder Uhrsprünge noch Timer, die in der Pause weiterlaufen.
+ * now() ist der beim letzten advance() gesetzte Wert, alle Updates eines Ticks sehen dieselbe Zeit.
+ *
+ * timeScale ändert nicht die Spielzeit pro Tick (die Simulation bleibt Tick für Tick gleich, wichtig für Replays),
+ * sondern wie schnell der Echtzeit-Loop tickt: realNanosPerTick() = Schritt / timeScale (2 = doppelte Geschwindigkeit).
+ */
+final class GameClock {
+    private final int simHz;
+    private long ticks, nowMillis; // gelaufene (nicht angehaltene) Ticks
+    private boolean paused;
+    private double timeScale = 1;
+
+    GameClock(int simHz) { this.simHz = simHz; }
+
+    /** Ein Tick: Spielzeit weiter, außer angehalten (frozen = Spielzustand hält an, z.B. Pause-Menü). */
+    void advance(boolean frozen) {
+        if (!frozen && !paused) ticks++;
+        nowMillis = ticks * 1000 / simHz;
+    }
+
+    /** Spielzeit in ms, einmal pro Tick gesampelt. */
+    long now() { return nowMillis; }
+
+    /** Hält die Uhr zusätzlich zum Spielzustand an (z.B. beim Vorspulen/Anhalten eines Replays). */
+    void setPaused(boolean paused) { this.paused = paused; }
+    boolean isPaused() { return paused; }
+
+    void setTimeScale(double timeScale) {
+        if (!(timeScale > 0)) throw new IllegalArgumentException("timeScale must be > 0: " + timeScale);
+        this.timeScale = timeScale;
+    }
+    double timeScale() { return timeScale; }
+
+    /** Echtzeit zwischen zwei Ticks für den Fenster-Loop. */
+    long realNanosPerTick() { return (long) (1_000_000_000L / simHz / timeScale); }
+}
@@ -0,0 +1,147 @@
+package squareshooter;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * GameEvents - eigene JFR-Events (Java Flight Recorder) für Game-Loop-Phasen, Spawns, Waves, Upgrades
+ * und Lebenszyklus von Enemies/Bullets.
+ *
+ * Aktiv nur in einer Aufnahme mit passenden Settings, z.B.
+ * java -XX:StartFlightRecording:settings=default,settings=jfr/squareshooter.jfc,filename=game.jfr ...
+ * Ohne Aufnahme kostet jeder Aufrufpunkt ein isEnabled() (volatile Lesen), Events werden erst danach angelegt.
+ */
+final class GameEvents {
+    private GameEvents() {}
+
+    @Name("squareshooter.Phase")
+    @Label("Game Loop Phase")
+    @Category({"SquareShooter", "Simulation"})
+    static class Phase extends Event {
+        @Label("Phase") String phase;
+        @Label("Tick") long tick;
+    }
+
+    @Name("squareshooter.EnemySpawn")
+    @Label("Enemy Spawn")
+    @Description("spawnEnemy() hat einen Enemy erzeugt")
+    @Category({"SquareShooter", "Gameplay"})
+    static class EnemySpawn extends Event {
+        @Label("Type") int type;
+        @Label("X") int x;
+        @Label("Y") int y;
+        @Label("Wave") int wave;
+        @Label("Spawned In Wave") int totalSpawned;
+        @Label("Wave Size") int maxTotalEnemies;
+    }
+
+    @Name("squareshooter.WaveTransition")
+    @Label("Wave Transition")
+    @Category({"SquareShooter", "Gameplay"})
+    static class WaveTransition extends Event {
+        @Label("From Wave") int fromWave;
+        @Label("To Wave") int toWave;
+        @Label("Wave Size") int maxTotalEnemies;
+        @Label("Score") int score;
+    }
+
+    @Name("squareshooter.Upgrade")
+    @Label("Upgrade")
+    @Description("checkUpgrades() hat Werte geändert (Zustand danach)")
+    @Category({"SquareShooter", "Gameplay"})
+    static class Upgrade extends Event {
+        @Label("Score") int score;
+        @Label("Swords") int swordCount;
+        @Label("Reload Time (ms)") int reloadTime;
+        @Label("Bullet Size") int bulletSize;
+        @Label("Fire Delay (ms)") int fireDelay;
+        @Label("Player HP") int playerHP;
+    }
+
+    @Name("squareshooter.Enemy")
+    @Label("Enemy Lifecycle")
+    @Category({"SquareShooter", "Entities"})
+    static class EnemyLifecycle extends Event {
+        @Label("Created") boolean created;
+        @Label("Type") int type;
+        @Label("X") int x;
+        @Label("Y") int y;
+        @Label("HP") int hp;
+    }
+
+    @Name("squareshooter.Bullet")
+    @Label("Bullet Lifecycle")
+    @Category({"SquareShooter", "Entities"})
+    static class BulletLifecycle extends Event {
+        @Label("Created") boolean created;
+        @Label("Pool") String pool;
+        @Label("X") double x;
+        @Label("Y") double y;
+        @Label("Damage") int damage;
+    }
+
+    // EventType einmal auflösen, isEnabled() ist danach nur noch ein Feldzugriff
+    private static final EventType PHASE = EventType.getEventType(Phase.class), SPAWN = EventType.getEventType(EnemySpawn.class),
+            WAVE = EventType.getEventType(WaveTransition.class), UPGRADE = EventType.getEventType(Upgrade.class),
+            ENEMY = EventType.getEventType(EnemyLifecycle.class), BULLET = EventType.getEventType(BulletLifecycle.class);
+
+    /** Gestartetes Phase-Event oder null, wenn keine Aufnahme es will; abschließen mit endPhase. */
+    static Phase beginPhase() {
+        if (!PHASE.isEnabled()) return null;
+        Phase e = new Phase();
+        e.begin();
+        return e;
+    }
+
+    static void endPhase(Phase e, String phase, long tick) {
+        e.end();
+        if (!e.shouldCommit()) return;
+        e.phase = phase;
+        e.tick = tick;
+        e.commit();
+    }
+
+    static void enemySpawned(int type, int x, int y, int wave, int totalSpawned, int maxTotalEnemies) {
+        if (!SPAWN.isEnabled()) return;
+        EnemySpawn e = new EnemySpawn();
+        e.type = type; e.x = x; e.y = y; e.wave = wave; e.totalSpawned = totalSpawned; e.maxTotalEnemies = maxTotalEnemies;
+        e.commit();
+    }
+
+    static void waveTransition(int fromWave, int toWave, int maxTotalEnemies, int score) {
+        if (!WAVE.isEnabled()) return;
+        WaveTransition e = new WaveTransition();
+        e.fromWave = fromWave; e.toWave = toWave; e.maxTotalEnemies = maxTotalEnemies; e.score = score;
+        e.commit();
+    }
+
+    static void upgrade(int score, int swordCount, int reloadTime, int bulletSize, int fireDelay, int playerHP) {
+        if (!UPGRADE.isEnabled()) return;
+        Upgrade e = new Upgrade();
+        e.score = score; e.swordCount = swordCount; e.reloadTime = reloadTime;
+        e.bulletSize = bulletSize; e.fireDelay = fireDelay; e.playerHP = playerHP;
+        e.commit();
+    }
+
+    static boolean enemyEnabled() { return ENEMY.isEnabled(); }
+
+    static void enemy(boolean created, int type, int x, int y, int hp) {
+        if (!ENEMY.isEnabled()) return;
+        EnemyLifecycle e = new EnemyLifecycle();
+        e.created = created; e.type = type; e.x = x; e.y = y; e.hp = hp;
+        e.commit();
+    }
+
+    static boolean bulletEnabled() { return BULLET.isEnabled(); }
+
+    static void bullet(boolean created, String pool, double x, double y, int damage) {
+        if (!BULLET.isEnabled()) return;
+        BulletLifecycle e = new BulletLifecycle();
+        e.created = created; e.pool = pool; e.x = x; e.y = y; e.damage = damage;
+        e.commit();
+    }
+}
@@ -0,0 +1,1302 @@
+package squareshooter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * GameWorld - kompletter Spielzustand + Simulation, ohne AWT/Swing.
+ *
+ * Enthält Spieler, Enemies, Bullets, Walls, Towers, Health Packs, Shield und Waves. Enemies, Towers und Health Packs
+ * liegen als Archetypes (gepackte Komponenten-Arrays), die Systeme in gameLoop() laufen linear darüber. Den Weg um
+ * Walls finden Enemies über ein gemeinsames FlowField zum Spieler, Crowd hält sie auseinander. tick() ist ein
+ * Simulationsschritt mit festem Zeitschritt; Eingaben kommen als Methodenaufrufe (setMovement, setMouse,
+ * pressMouse, buyTowers, ...) aus dem Thread, der auch tick() aufruft.
+ * SquareShooterExperimental übersetzt nur AWT-Events und zeichnet aus dem WorldSnapshot,
+ * HeadlessRunner simuliert ganze Spiele ohne Fenster so schnell wie möglich.
+ *
+ * Zeit: alle Timer laufen auf der GameClock (Spielzeit aus den Ticks, steht in Pause und beim Tower-Platzieren) -
+ * headless schneller als Echtzeit, im Fenster so schnell wie der Loop tickt (timeScale).
+ * Mit Spielzeit, festem Seed und gleicher Config ist ein Lauf reproduzierbar (SweepRunner).
+ *
+ * Welt: ohne Config.worldW ist das Spielfeld das Fenster. Mit worldW/worldH ist die Welt größer, die Kamera folgt dem
+ * Spieler (Maus-Eingaben sind Bildschirm-Koordinaten), und die Welt ist in CHUNK x CHUNK Chunks geteilt. Nur die Chunks
+ * um die Kamera sind aktiv: Enemies außerhalb ruhen in der Tabelle ihres Chunks und werden erst wieder eingelesen, wenn
+ * der Chunk aktiv wird; Snapshot und Wall-Layer enthalten nur die Walls der aktiven Chunks (Config.mapWalls erzeugt
+ * zufällige Walls über die ganze Welt). Die Kosten pro Tick hängen so vom Ausschnitt ab, nicht von der Map.
+ * Config.map lädt stattdessen eine Binärkarte (MapFile): Weltgröße und Spawn-Zonen aus dem Kopf, die Walls eines Chunks
+ * erst, wenn er zum ersten Mal aktiv wird.
+ */
+final class GameWorld {
+    // --- Spielfeld (Fenstergröße bzw. feste Größe headless) = sichtbarer Ausschnitt der Welt ---
+    private int screenW = 1000, screenH = 800;
+
+    // --- große Welt: Kamera (linke obere Ecke des Ausschnitts) + aktive Chunks [activeX0, activeX1) x [activeY0, activeY1) ---
+    static final int CHUNK = 256;
+    private final boolean chunked;
+    private int camX = 0, camY = 0, prevCamX = 0, prevCamY = 0;
+    private int activeX0, activeY0, activeX1, activeY1;
+    private final int chunksX, chunksY;
+    private final int worldW, worldH;
+    private final MapFile map; // null ohne Config.map
+    private final MapFile.WallSink mapWalls = (x, y, w, h, type, hp) -> addWall(new Wall(x, y, w, h, MapFile.TYPES[type], hp));
+    private int[] activeSpawns; // Scratch für spawnEnemy(): Spawn-Zonen im aktiven Bereich
+
+    // --- Spieler ---
+    private int playerX = screenW / 2, playerY = screenH / 2;
+    private int playerSize = 30;
+    private boolean up, down, left, right;
+    private int mouseX = screenW / 2, mouseY = screenH / 2;
+    private int playerHP = 100;
+    private final int playerHPMax = 100;
+    private int totalDamageTaken = 0;
+    private int lastDamage = 0;
+    private long lastDamageTime = 0;
+
+    private int ammo = 35;
+    private boolean reloading = false;
+    private long reloadStart = 0;
+    private boolean mouseDown = false;
+
+    // --- Shooting / Fire rate ---
+    // Startwert für Cooldown-Zeitpunkte: "schon lange her" - Spielzeit beginnt bei 0, sonst wäre alles anfangs gesperrt
+    static final long LONG_AGO = -999999999L;
+    private long lastShot = LONG_AGO;
+    private int fireDelay = 500;
+
+    // --- Collections ---
+    private final BulletPool bullets = new BulletPool(1024, "player"); // Spieler + Towers (owner = -1)
+    private final BulletPool enemyBullets = new BulletPool(256, "enemy"); // owner = id der schießenden Enemy
+    private final WallIndex<Wall> wallIndex = new WallIndex<>(); // alle Walls (Einfüge-Reihenfolge) und alle Wall-Queries
+    private int wallVersion = 0; // +1 bei jeder Änderung an walls oder den aktiven Chunks (Snapshot/Wall-Layer nur dann neu)
+
+    // --- Wegfindung der Enemies: ein Flow-Field für alle, Ziel = Spieler ---
+    private final FlowField flowField = new FlowField(32);
+    private boolean flowDirty = true;        // Bereich oder blockierende Walls neu -> reset + block + compute
+    private int[] flowOpened = new int[16];  // Rechtecke zerstörter Walls (x0, y0, x1, y1), repair() im nächsten Enemy-Update
+    private int flowOpenedCount = 0;
+    private final Crowd crowd = new Crowd(24, 3); // Schwarmkräfte, Nachbar-Grid pro Tick
+
+    private int totalHealthPacks = 0;
+
+    // --- Upgrades & Specials ---
+    private int swordCount = 0;
+    private double swordAngle = 0;
+    private long lastUpgradeScore = 0;
+    private int reloadTime = 5000;
+    private int bulletSize = 6;
+
+    private boolean placingTower = false;
+    private int towersToPlace = 0; // number of towers bought, to place sequentially
+
+    // Shield saw
+    private boolean shieldActive = false;
+    private Shield shield;
+    private long lastShieldUsed = LONG_AGO;
+    private final long shieldDuration = 30_000L; // 30s
+    private final long shieldCooldown = 300_000L; // 5min
+    private long shieldActivatedAt = 0L;
+
+    // Friendly fire toggle (default OFF)
+    private boolean friendlyFire = false;
+
+    // --- Entities: ein Archetype pro Komponenten-Kombination (WEAPON.lastFire = Fähigkeit bei Enemies, Schuss bei Towers) ---
+    private final Archetype enemies = new Archetype("enemy", Archetype.POSITION | Archetype.VELOCITY | Archetype.HEALTH
+            | Archetype.COLLIDER | Archetype.WEAPON | Archetype.RENDERABLE, 64);
+    private final Archetype towers = new Archetype("tower", Archetype.POSITION | Archetype.WEAPON, 16);
+    private final Archetype healthPacks = new Archetype("healthpack", Archetype.POSITION | Archetype.COLLIDER | Archetype.LIFETIME, 16);
+    private final Archetype[] archetypes = {enemies, towers, healthPacks};
+    private Archetype[] dormant; // große Welt: ruhende Enemies pro Chunk (y * chunksX + x), bei Bedarf angelegt
+    private int dormantCount = 0;
+
+    // --- Game state ---
+    private int totalSpawned = 0;
+    private int score = 0;
+    private boolean gameOver = false;
+    private boolean titleScreen = true;
+    private boolean paused = false; // pause state
+    private final Config config;
+    private int maxTotalEnemies; // per wave
+    private int wave = 1;
+    private boolean waveCleared = false;
+    private String notifyMessage = "";
+
+    private final SplittableRandom rnd;
+    private final long seed;
+    private Replay.Recorder recorder; // nimmt alle Eingaben mit Tick-Nummer auf (startRecording)
+
+    // --- Tick-Zähler ersetzen die früheren Swing-Timer ---
+    private final int simHz;
+    private final double step, slow; // step = 60 / simHz: Geschwindigkeiten sind px pro Tick bei 60 Hz; slow = SLOW-Faktor pro Tick
+    private final GameClock clock;
+    private long tickCount = 0;
+    private final int spawnEveryTicks, fireEveryTicks, healthPackEveryTicks, flowEveryTicks;
+
+    // vorheriger Tick-Zustand für Interpolation beim Rendern
+    private int prevPlayerX = playerX, prevPlayerY = playerY;
+    private double prevSwordAngle = 0;
+
+    // --- Broad-phase: Enemies im Grid, Bullets fragen ihre Zelle ab ---
+    private final SpatialGrid enemyGrid = new SpatialGrid(64);
+
+    // --- Orbital weapons: max. 8 + 16 Swords + Shield-Saw, Positionen des aktuellen Ticks ---
+    private final int[] orbitalX = new int[8 + 16 + 1], orbitalY = new int[8 + 16 + 1];
+    private int orbitalCount = 0;
+
+    // --- Stress-Modus (--stress [--brute]): tausende Bullets/Enemies, misst die Kollisionsphase ---
+    private static final int STRESS_ENEMIES = 3000, STRESS_BULLETS = 5000;
+    private boolean stressMode = false, bruteForce = false, stressReport = true;
+    private int stressEnemies, stressBullets;
+    private long stressNanos = 0;
+    private int stressTicks = 0;
+
+    // --- Metriken (optional, enableMetrics): Phasenzeiten pro Tick in ns, Allokation pro Tick in Bytes ---
+    static final int M_TICK = 0, M_MOVEMENT = 1, M_BULLETS = 2, M_ENEMY_BULLETS = 3, M_ENEMIES = 4, M_COLLISIONS = 5,
+            M_ORBITALS = 6, M_TOWERS = 7, M_ALLOC = 8;
+    static final String[] METRICS = {"tick", "movement", "bullets", "enemy_bullets", "enemies", "collisions",
+            "orbitals", "towers", "alloc_bytes"};
+    private Metrics metrics;
+    private GameEvents.Phase phaseEvent; // laufendes JFR-Phase-Event (null ohne Aufnahme)
+
+    GameWorld(int simHz) { this(simHz, new Config(), new SplittableRandom().nextLong()); }
+
+    // aller Zufall kommt aus diesem Seed - gleiche Eingaben am gleichen Tick ergeben denselben Lauf (Replay)
+    GameWorld(int simHz, Config config, long seed) {
+        this.simHz = simHz;
+        this.step = 60.0 / simHz;
+        this.slow = Math.pow(0.5, step); // halbiert pro 1/60 s, bei 60 Hz genau 0.5
+        this.clock = new GameClock(simHz);
+        this.config = config;
+        this.seed = seed;
+        this.rnd = new SplittableRandom(seed);
+        maxTotalEnemies = config.firstWaveEnemies;
+        try {
+            map = config.map != null ? MapFile.open(Paths.get(config.map)) : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot open map " + config.map, e);
+        }
+        worldW = map != null ? map.worldW() : config.worldW;
+        worldH = map != null ? map.worldH() : config.worldH;
+        chunked = worldW > 0;
+        chunksX = chunked ? (worldW + CHUNK - 1) / CHUNK : 1;
+        chunksY = chunked ? (worldH + CHUNK - 1) / CHUNK : 1;
+        if (chunked) {
+            dormant = new Archetype[chunksX * chunksY];
+            playerX = prevPlayerX = worldW / 2; playerY = prevPlayerY = worldH / 2; // Start in der Weltmitte
+        }
+        if (map != null) activeSpawns = new int[map.spawnCount()];
+        spawnEveryTicks = ticks(1800);
+        fireEveryTicks = ticks(120);
+        healthPackEveryTicks = ticks(30000);
+        flowEveryTicks = ticks(100);
+
+        // initial walls (example layout) - eine Karte bringt ihre eigenen mit, geladen in updateCamera()
+        if (map == null) {
+            addWall(new Wall(300, 200, 60, 200, Wall.Type.STOP));
+            addWall(new Wall(600, 400, 120, 40, Wall.Type.SLOW));
+            addWall(new Wall(450, 650, 100, 40, Wall.Type.DESTRUCTIBLE, 35));
+            addWall(new Wall(150, 150, 40, 300, Wall.Type.THROUGH));
+            addWall(new Wall(800, 100, 150, 50, Wall.Type.FREEZE));
+        }
+        if (config.mapWalls > 0) generateMap(config.mapWalls);
+        updateCamera();
+    }
+
+    // zufällige Walls über die ganze Welt (eigener Zufall aus dem Seed, der Spiel-Zufall bleibt unberührt),
+    // frei bleibt nur ein Bereich um den Spieler-Start
+    private void generateMap(int count) {
+        SplittableRandom map = new SplittableRandom(seed ^ 0x5DEECE66DL);
+        Wall.Type[] types = Wall.Type.values();
+        int w = worldW(), h = worldH();
+        for (int i = 0; i < count; i++) {
+            int ww = 16 + map.nextInt(48), wh = 16 + map.nextInt(48);
+            int x = map.nextInt(Math.max(1, w - ww)), y = map.nextInt(Math.max(1, h - wh));
+            if (Math.abs(x + ww / 2 - playerX) < 200 && Math.abs(y + wh / 2 - playerY) < 200) continue;
+            Wall.Type type = types[map.nextInt(types.length)];
+            addWall(type == Wall.Type.DESTRUCTIBLE ? new Wall(x, y, ww, wh, type, 10) : new Wall(x, y, ww, wh, type));
+        }
+    }
+
+    private int ticks(int millis) { return Math.max(1, (int) Math.round(millis * simHz / 1000.0)); }
+
+    GameClock clock() { return clock; }
+
+    // ein Simulationsschritt (spawn/fire/healthpack ersetzen die früheren Swing-Timer)
+    void tick() {
+        long start = metrics != null ? System.nanoTime() : 0, allocStart = metrics != null ? Metrics.allocatedBytes() : 0;
+        tickCount++;
+        clock.advance(titleScreen || gameOver || paused || placingTower); // gleiche Bedingungen wie gameLoop()
+        savePreviousState();
+        if (tickCount % spawnEveryTicks == 0) spawnEnemy();                 // spawn attempt
+        if (tickCount % fireEveryTicks == 0 && !gameOver && !paused && mouseDown && !placingTower) fireBullet();
+        if (tickCount % healthPackEveryTicks == 0) spawnHealthPacks();      // healthpack spawner
+        gameLoop();
+        updateCamera();
+        if (metrics != null) {
+            long end = System.nanoTime();
+            metrics.record(M_TICK, end - start);
+            metrics.record(M_ALLOC, Metrics.allocatedBytes() - allocStart);
+            metrics.roll(end);
+        }
+    }
+
+    /** Phasenzeiten + Allokation pro Tick messen (Thread, der tick() aufruft, besitzt das Registry). */
+    void enableMetrics(Metrics metrics) { this.metrics = metrics; }
+
+    // Phase abschließen: Dauer seit start eintragen + JFR-Phase-Event, liefert den Start der nächsten Phase (ohne Metriken 0)
+    private long lap(int metric, long start) {
+        if (phaseEvent != null) GameEvents.endPhase(phaseEvent, METRICS[metric], tickCount);
+        phaseEvent = metric == M_TOWERS ? null : GameEvents.beginPhase(); // Towers ist die letzte gemessene Phase
+        if (metrics == null) return 0;
+        long now = System.nanoTime();
+        metrics.record(metric, now - start);
+        return now;
+    }
+
+    private void savePreviousState() {
+        prevPlayerX = playerX; prevPlayerY = playerY;
+        prevSwordAngle = swordAngle;
+        prevCamX = camX; prevCamY = camY;
+        for (Archetype a : archetypes) if (a.has(Archetype.POSITION)) a.savePrevious();
+        bullets.savePrevious();
+        enemyBullets.savePrevious();
+    }
+
+    // --- Eingaben (vor tick() anwenden) ---
+
+    // Größe, Maus und Bewegung kommen jeden Tick, aufgenommen werden nur Änderungen
+
+    /** Spielfeldgröße, die Map passt sich an (min. 200x200). */
+    void resize(int w, int h) {
+        w = Math.max(200, w);
+        h = Math.max(200, h);
+        if (recorder != null && (w != screenW || h != screenH)) recorder.event(tickCount, Replay.RESIZE, w, h);
+        if (w != screenW || h != screenH) flowDirty = true;
+        screenW = w;
+        screenH = h;
+    }
+
+    void setMovement(boolean up, boolean down, boolean left, boolean right) {
+        if (recorder != null && (up != this.up || down != this.down || left != this.left || right != this.right))
+            recorder.move(tickCount, up, down, left, right);
+        this.up = up; this.down = down; this.left = left; this.right = right;
+    }
+
+    /** Mausposition in Bildschirm-Koordinaten (relativ zur Kamera). */
+    void setMouse(int x, int y) {
+        if (recorder != null && (x != mouseX || y != mouseY)) recorder.event(tickCount, Replay.MOUSE, x, y);
+        mouseX = x; mouseY = y;
+    }
+
+    /** Linke Maustaste gedrückt: Turm platzieren oder feuern (im Pause-Menü nur merken). */
+    void pressMouse() {
+        record(Replay.PRESS);
+        mouseDown = true;
+        if (paused) return;
+
+        if (placingTower && towersToPlace > 0) {
+            // clamp placement inside screen
+            int px = camX + Math.max(20, Math.min(screenW - 20, mouseX));
+            int py = camY + Math.max(20, Math.min(screenH - 20, mouseY));
+            addTower(px, py);
+            towersToPlace--;
+            if (towersToPlace <= 0) placingTower = false;
+        } else {
+            fireBullet();
+        }
+    }
+
+    void releaseMouse() { record(Replay.RELEASE); mouseDown = false; }
+
+    /** Taste 1: so viele Towers kaufen wie der Score erlaubt (je 100), danach Platziermodus. */
+    void buyTowers() {
+        record(Replay.BUY_TOWERS);
+        if (!placingTower && score >= 100) {
+            int purch = score / 100; // number of towers the player can afford
+            towersToPlace = Math.max(1, purch);
+            score -= towersToPlace * 100;
+            placingTower = true;
+            notifyMessage = "";
+        } else {
+            if (score < 100) notifyMessage = "Not enough score for tower!";
+        }
+    }
+
+    /** Taste 2: Shield-Saw an/aus. */
+    void toggleShield() {
+        record(Replay.SHIELD);
+        long now = clock.now();
+        if (!shieldActive && now - lastShieldUsed >= shieldCooldown) {
+            shieldActive = true;
+            shield = new Shield(playerX, playerY, 100);
+            shieldActivatedAt = now;
+        } else if (shieldActive) {
+            // manual deactivate
+            shieldActive = false;
+            shield = null;
+            lastShieldUsed = now;
+        } else {
+            notifyMessage = "Shield on cooldown";
+        }
+    }
+
+    /** Taste F. */
+    void toggleFriendlyFire() {
+        record(Replay.FRIENDLY_FIRE);
+        friendlyFire = !friendlyFire;
+        notifyMessage = "Friendly Fire " + (friendlyFire ? "ON" : "OFF");
+    }
+
+    /** SPACE: Start / Restart / nächste Wave. */
+    void confirm() {
+        record(Replay.CONFIRM);
+        if (titleScreen) {
+            titleScreen = false;
+            gameOver = false;
+            resetForNewGame();
+            return;
+        }
+        if (gameOver) {
+            restartGame();
+            return;
+        }
+        if (waveCleared) startNextWave();
+    }
+
+    /** ESC: Platzieren abbrechen (Refund), sonst Pause umschalten. */
+    void cancel() {
+        record(Replay.CANCEL);
+        if (placingTower) {
+            placingTower = false;
+            score += towersToPlace * 100; // refund
+            towersToPlace = 0;
+        } else {
+            // toggle pause
+            paused = !paused;
+        }
+    }
+
+    // Pause-Menü: Continue / Restart
+    void resume() { record(Replay.RESUME); paused = false; }
+    void restart() { record(Replay.RESTART); paused = false; restartGame(); }
+
+    private void record(int op) { if (recorder != null) recorder.event(tickCount, op); }
+
+    /** Ab jetzt alle Eingaben aufnehmen; Startzustand (Seed, Config, Größe, Stress) steht im Kopf der Aufnahme. */
+    Replay.Recorder startRecording() {
+        recorder = new Replay.Recorder(simHz, seed, config, screenW, screenH,
+                stressMode ? (bruteForce ? 2 : 1) : 0, stressEnemies, stressBullets);
+        return recorder;
+    }
+
+    /**
+     * Hash über den spielrelevanten Zustand (Spieler, Enemies, Bullets, Walls, Towers, Health Packs, Score, Wave, Uhr)
+     * - gleich nach Aufnahme und Wiedergabe, wenn die Simulation bit-genau war.
+     */
+    long stateHash() {
+        long h = 17;
+        h = mix(h, tickCount); h = mix(h, clock.now());
+        h = mix(h, playerX); h = mix(h, playerY); h = mix(h, playerHP); h = mix(h, totalDamageTaken);
+        h = mix(h, ammo); h = mix(h, score); h = mix(h, wave); h = mix(h, totalSpawned); h = mix(h, swordCount);
+        h = mix(h, Double.doubleToLongBits(swordAngle)); h = mix(h, fireDelay); h = mix(h, reloadTime);
+        if (dormantCount > 0) h = mix(h, dormantCount); // ruhende Enemies (große Welt)
+        h = mix(h, (gameOver ? 1 : 0) | (paused ? 2 : 0) | (placingTower ? 4 : 0) | (waveCleared ? 8 : 0) | (shieldActive ? 16 : 0));
+        for (int i = 0; i < enemies.size(); i++) {
+            h = mix(h, enemies.x[i]); h = mix(h, enemies.y[i]); h = mix(h, enemies.hp[i]); h = mix(h, enemies.type[i]); h = mix(h, enemies.lastFire[i]);
+        }
+        for (BulletPool pool : List.of(bullets, enemyBullets))
+            for (int i = 0; i < pool.size(); i++) {
+                h = mix(h, Double.doubleToLongBits(pool.x[i])); h = mix(h, Double.doubleToLongBits(pool.y[i]));
+                h = mix(h, Double.doubleToLongBits(pool.vx[i])); h = mix(h, Double.doubleToLongBits(pool.vy[i]));
+            }
+        for (int id = 0; id < wallIndex.idCount(); id++) if (!wallIndex.removed(id)) { h = mix(h, wallIndex.get(id).x); h = mix(h, wallIndex.get(id).hp); }
+        for (int i = 0; i < towers.size(); i++) { h = mix(h, towers.x[i]); h = mix(h, towers.y[i]); h = mix(h, towers.lastFire[i]); }
+        for (int i = 0; i < healthPacks.size(); i++) { h = mix(h, healthPacks.x[i]); h = mix(h, healthPacks.y[i]); }
+        return h;
+    }
+
+    private static long mix(long h, long v) { return (h ^ v) * 0x100000001b3L + (h >>> 29); }
+
+    // --- Zustand für Fenster / Runner ---
+
+    boolean isTitleScreen() { return titleScreen; }
+    boolean isGameOver() { return gameOver; }
+    boolean isPaused() { return paused; }
+    boolean isWaveCleared() { return waveCleared; }
+    boolean isPlacingTower() { return placingTower; }
+    boolean shieldReady() { return !shieldActive && clock.now() - lastShieldUsed >= shieldCooldown; }
+    int screenW() { return screenW; }
+    int screenH() { return screenH; }
+    int worldW() { return chunked ? worldW : screenW; }
+    int worldH() { return chunked ? worldH : screenH; }
+    int camX() { return camX; }
+    int camY() { return camY; }
+    int playerX() { return playerX; }
+    int playerY() { return playerY; }
+    int score() { return score; }
+    int wave() { return wave; }
+    int totalDamageTaken() { return totalDamageTaken; }
+    long tickCount() { return tickCount; }
+    int enemyCount() { return enemies.size(); }
+    int enemyX(int i) { return enemies.x[i]; }
+    int enemyY(int i) { return enemies.y[i]; }
+
+    // --- Benchmarks + Tests (gleiches Package) ---
+    BulletPool bullets() { return bullets; }
+    BulletPool enemyBullets() { return enemyBullets; }
+    Archetype enemies() { return enemies; }
+    Archetype towers() { return towers; }
+
+    // kopiert den Zustand nach dem Tick in einen Snapshot-Puffer (tickNanos setzt der Aufrufer)
+    void writeSnapshot(WorldSnapshot s) {
+        long now = clock.now();
+        s.screenW = screenW; s.screenH = screenH;
+        s.camX = camX; s.camY = camY; s.prevCamX = prevCamX; s.prevCamY = prevCamY;
+        s.titleScreen = titleScreen; s.gameOver = gameOver; s.paused = paused;
+        s.placingTower = placingTower; s.waveCleared = waveCleared; s.notifyMessage = notifyMessage;
+        s.reloading = reloading; s.friendlyFire = friendlyFire;
+        s.showDamage = now - lastDamageTime < 600;
+
+        s.playerX = playerX; s.playerY = playerY; s.prevPlayerX = prevPlayerX; s.prevPlayerY = prevPlayerY;
+        s.playerSize = playerSize; s.playerHP = playerHP; s.playerHPMax = playerHPMax; s.lastDamage = lastDamage;
+        s.ammo = ammo; s.score = score; s.totalSpawned = totalSpawned; s.maxTotalEnemies = maxTotalEnemies;
+        s.totalDamageTaken = totalDamageTaken; s.totalHealthPacks = totalHealthPacks;
+        s.fireDelay = fireDelay; s.bulletSize = bulletSize; s.towersToPlace = towersToPlace;
+        s.swordCount = swordCount; s.swordAngle = swordAngle; s.prevSwordAngle = prevSwordAngle;
+
+        s.shieldActive = shieldActive && shield != null;
+        s.shieldLeft = Math.max(0, shieldDuration - (now - shieldActivatedAt));
+        s.shieldReadyIn = Math.max(0, (lastShieldUsed + shieldCooldown) - now);
+        if (s.shieldActive) { s.shieldX = shield.x; s.shieldY = shield.y; s.shieldRadius = shield.radius; s.shieldAngle = shield.angle; }
+
+        int n = enemies.size(); // nur aktive Chunks, ruhende Enemies liegen in dormant
+        s.ensureEnemies(n);
+        System.arraycopy(enemies.x, 0, s.enemyX, 0, n); System.arraycopy(enemies.y, 0, s.enemyY, 0, n);
+        System.arraycopy(enemies.prevX, 0, s.enemyPrevX, 0, n); System.arraycopy(enemies.prevY, 0, s.enemyPrevY, 0, n);
+        System.arraycopy(enemies.size, 0, s.enemySize, 0, n); System.arraycopy(enemies.type, 0, s.enemyType, 0, n);
+        System.arraycopy(enemies.hp, 0, s.enemyHp, 0, n); System.arraycopy(enemies.maxHp, 0, s.enemyMaxHp, 0, n);
+        s.enemyCount = n;
+        s.worldEnemyCount = n + dormantCount;
+
+        n = bullets.size();
+        s.ensureBullets(n);
+        System.arraycopy(bullets.x, 0, s.bulletX, 0, n); System.arraycopy(bullets.y, 0, s.bulletY, 0, n);
+        System.arraycopy(bullets.px, 0, s.bulletPrevX, 0, n); System.arraycopy(bullets.py, 0, s.bulletPrevY, 0, n);
+        s.bulletCount = n;
+
+        n = enemyBullets.size();
+        s.ensureEnemyBullets(n);
+        System.arraycopy(enemyBullets.x, 0, s.enemyBulletX, 0, n); System.arraycopy(enemyBullets.y, 0, s.enemyBulletY, 0, n);
+        System.arraycopy(enemyBullets.px, 0, s.enemyBulletPrevX, 0, n); System.arraycopy(enemyBullets.py, 0, s.enemyBulletPrevY, 0, n);
+        s.enemyBulletCount = n;
+
+        if (s.wallVersion != wallVersion) { // jeder der drei Puffer merkt sich seinen Stand
+            if (chunked) { // nur Walls der aktiven Chunks, Wall-Layer deckt genau diesen Bereich ab
+                n = wallIndex.queryRect(activeX0, activeY0, activeX1, activeY1);
+                s.ensureWalls(n);
+                int[] ids = wallIndex.result();
+                for (int i = 0; i < n; i++) copyWall(s, i, wallIndex.get(ids[i]));
+                s.wallAreaX = activeX0; s.wallAreaY = activeY0; s.wallAreaW = activeX1 - activeX0; s.wallAreaH = activeY1 - activeY0;
+            } else {
+                n = wallIndex.size();
+                s.ensureWalls(n);
+                for (int id = 0, i = 0; id < wallIndex.idCount(); id++) if (!wallIndex.removed(id)) copyWall(s, i++, wallIndex.get(id));
+                s.wallAreaX = 0; s.wallAreaY = 0; s.wallAreaW = screenW; s.wallAreaH = screenH;
+            }
+            s.wallCount = n;
+            s.worldWallCount = wallIndex.size();
+            s.wallVersion = wallVersion;
+        }
+
+        n = healthPacks.size();
+        s.ensureHealthPacks(n);
+        System.arraycopy(healthPacks.x, 0, s.healthPackX, 0, n); System.arraycopy(healthPacks.y, 0, s.healthPackY, 0, n);
+        System.arraycopy(healthPacks.size, 0, s.healthPackSize, 0, n);
+        s.healthPackCount = n;
+
+        n = towers.size();
+        s.ensureTowers(n);
+        System.arraycopy(towers.x, 0, s.towerX, 0, n); System.arraycopy(towers.y, 0, s.towerY, 0, n);
+        System.arraycopy(towers.level, 0, s.towerLevel, 0, n);
+        s.towerCount = n;
+
+        s.activeChunks = chunked ? ((activeX1 - activeX0) / CHUNK) * ((activeY1 - activeY0) / CHUNK) : 1;
+        s.totalChunks = chunksX * chunksY;
+
+        if (metrics != null && s.simMetricsInterval != metrics.intervals()) {
+            long[] m = metrics.summary();
+            if (s.simMetrics.length != m.length) s.simMetrics = new long[m.length];
+            System.arraycopy(m, 0, s.simMetrics, 0, m.length);
+            s.simMetricsInterval = metrics.intervals();
+        }
+    }
+
+    private static void copyWall(WorldSnapshot s, int i, Wall w) {
+        s.wallX[i] = w.x; s.wallY[i] = w.y; s.wallW[i] = w.w; s.wallH[i] = w.h; s.wallType[i] = w.type.ordinal(); s.wallHp[i] = w.hp;
+    }
+
+    // --- Kamera + aktive Chunks ---
+
+    // Kamera zentriert auf den Spieler, an den Weltrand geklemmt; aktiv sind die Chunks im Ausschnitt plus ein Chunk Rand.
+    // Neu aktive Chunks lesen ihre ruhenden Enemies ein (am Ende von enemies, Reihenfolge innerhalb des Chunks bleibt)
+    // und beim ersten Mal ihre Walls aus der Karte
+    private void updateCamera() {
+        camX = Math.max(0, Math.min(worldW() - screenW, playerX - screenW / 2));
+        camY = Math.max(0, Math.min(worldH() - screenH, playerY - screenH / 2));
+        if (!chunked) return;
+        int cx0 = Math.max(0, camX / CHUNK - 1), cy0 = Math.max(0, camY / CHUNK - 1);
+        int cx1 = Math.min(chunksX, (camX + screenW) / CHUNK + 2), cy1 = Math.min(chunksY, (camY + screenH) / CHUNK + 2);
+        if (cx0 * CHUNK == activeX0 && cy0 * CHUNK == activeY0 && cx1 * CHUNK == activeX1 && cy1 * CHUNK == activeY1) return;
+        activeX0 = cx0 * CHUNK; activeY0 = cy0 * CHUNK; activeX1 = cx1 * CHUNK; activeY1 = cy1 * CHUNK;
+        wallVersion++; // anderer Wall-Ausschnitt für Snapshot + Layer
+        flowDirty = true;
+        if (map != null) map.load(activeX0, activeY0, activeX1, activeY1, mapWalls);
+        for (int cy = cy0; cy < cy1; cy++)
+            for (int cx = cx0; cx < cx1; cx++) {
+                Archetype chunk = dormant[cy * chunksX + cx];
+                if (chunk == null || chunk.isEmpty()) continue;
+                for (int r = 0; r < chunk.size(); r++) enemies.append(chunk, r);
+                dormantCount -= chunk.size();
+                chunk.clear();
+            }
+    }
+
+    // true wenn (x, y) in einem aktiven Chunk liegt (ohne große Welt immer)
+    private boolean active(int x, int y) {
+        return !chunked || x >= activeX0 && x < activeX1 && y >= activeY0 && y < activeY1;
+    }
+
+    // Enemy-Zeile in die Ruhe-Tabelle ihres Chunks verschieben (Zeile in enemies entfernt der Aufrufer)
+    private void makeDormant(int row) {
+        int cx = Math.max(0, Math.min(chunksX - 1, enemies.x[row] / CHUNK)), cy = Math.max(0, Math.min(chunksY - 1, enemies.y[row] / CHUNK));
+        Archetype chunk = dormant[cy * chunksX + cx];
+        if (chunk == null) chunk = dormant[cy * chunksX + cx] = new Archetype("dormant", enemies.mask, 8);
+        chunk.append(enemies, row);
+        dormantCount++;
+    }
+
+    // --- spawn enemy with screen size awareness ---
+    private void spawnEnemy() {
+        if (gameOver || titleScreen || paused) return;
+        if (totalSpawned >= maxTotalEnemies) return;
+        if (enemies.size() + dormantCount >= config.maxActiveEnemies) return;
+
+        int x, y, zones = activeSpawnZones();
+        if (zones > 0) { // Karte mit Spawn-Zonen im aktiven Bereich: zufälliger Punkt in einer davon
+            int z = activeSpawns[rnd.nextInt(zones)];
+            x = map.spawnX(z) + rnd.nextInt(Math.max(1, map.spawnW(z)));
+            y = map.spawnY(z) + rnd.nextInt(Math.max(1, map.spawnH(z)));
+        } else {
+            int side = rnd.nextInt(4);
+            x = camX + ((side == 0) ? 0 : (side == 1) ? screenW : rnd.nextInt(Math.max(1, screenW))); // Rand des Ausschnitts
+            y = camY + ((side == 2) ? 0 : (side == 3) ? screenH : rnd.nextInt(Math.max(1, screenH)));
+        }
+        int type = rnd.nextInt(3);
+        addEnemy(x, y, type);
+        totalSpawned++;
+        GameEvents.enemySpawned(type, x, y, wave, totalSpawned, maxTotalEnemies);
+    }
+
+    // Spawn-Zonen der Karte, die den aktiven Bereich schneiden, nach activeSpawns; liefert die Anzahl
+    private int activeSpawnZones() {
+        if (map == null) return 0;
+        int n = 0;
+        for (int z = 0; z < map.spawnCount(); z++)
+            if (map.spawnX(z) < activeX1 && map.spawnX(z) + map.spawnW(z) > activeX0
+                    && map.spawnY(z) < activeY1 && map.spawnY(z) + map.spawnH(z) > activeY0) activeSpawns[n++] = z;
+        return n;
+    }
+
+    private void spawnHealthPacks() {
+        if (gameOver || titleScreen || paused) return;
+        int count = 1 + rnd.nextInt(3);
+        for (int i = 0; i < count; i++) {
+            int x = camX + rnd.nextInt(Math.max(1, screenW - 100)) + 50;
+            int y = camY + rnd.nextInt(Math.max(1, screenH - 100)) + 50;
+            addHealthPack(x, y, clock.now());
+            totalHealthPacks++;
+        }
+    }
+
+    // --- main game loop ---
+    private void gameLoop() {
+        if (titleScreen) return;
+        if (gameOver) return;
+
+        if (paused) return; // freeze updates while paused
+
+        // Freeze gameplay updates while placing tower (renders still run)
+        if (placingTower) return;
+
+        long now = clock.now(); // eine Zeit für alle Updates dieses Ticks
+        long t = metrics != null ? System.nanoTime() : 0;
+        phaseEvent = GameEvents.beginPhase();
+
+        // --- player movement ---
+        double vx = 0, vy = 0;
+        if (up) vy -= 1;
+        if (down) vy += 1;
+        if (left) vx -= 1;
+        if (right) vx += 1;
+        double len = Math.sqrt(vx * vx + vy * vy);
+        double speed = 5 * step;
+        if (len > 0) {
+            vx = vx / len * speed;
+            vy = vy / len * speed;
+            int nextX = playerX + (int) vx;
+            int nextY = playerY + (int) vy;
+            int half = playerSize / 2;
+            boolean collides = blockedByWall(nextX - half, nextY - half, nextX - half + playerSize, nextY - half + playerSize);
+            if (!collides) { playerX = nextX; playerY = nextY; }
+        }
+
+        // keep player inside world (= window ohne große Welt)
+        playerX = Math.max(playerSize / 2, Math.min(worldW() - playerSize / 2, playerX));
+        playerY = Math.max(playerSize / 2, Math.min(worldH() - playerSize / 2, playerY));
+
+        // reload
+        if (reloading && now - reloadStart >= reloadTime) {
+            ammo = 35;
+            reloading = false;
+        }
+
+        t = lap(M_MOVEMENT, t);
+
+        // --- bullets (player) update + wall interactions ---
+        updateBullets();
+        t = lap(M_BULLETS, t);
+
+        // --- enemy bullets update + wall interactions + collisions ---
+        enemyBullets.move();
+        if (friendlyFire && enemyBullets.size() > 0) rebuildEnemyGrid(); // Grid vom letzten Tick ist nach dem Entfernen toter Enemies ungültig
+        for (int i = 0; i < enemyBullets.size(); ) {
+            boolean collided = false;
+            double sx = enemyBullets.px[i], sy = enemyBullets.py[i]; // Start der Strecke dieses Ticks
+            int wn = wallHits(enemyBullets, i);
+            int[] wallHits = wallIndex.result();
+            double stop = firstStop(wn, wallHits, sx, sy, enemyBullets.x[i], enemyBullets.y[i]);
+            for (int k = 0; k < wn; k++) {
+                Wall w = wallIndex.get(wallHits[k]);
+                if (wallIndex.segmentEntry(wallHits[k], sx, sy, enemyBullets.x[i], enemyBullets.y[i]) > stop) continue; // hinter einer STOP-Wall
+                switch (w.type) {
+                    case STOP:
+                        collided = true;
+                        break;
+                    case SLOW:
+                        if (Math.abs(enemyBullets.vx[i]) > 0.25 * step || Math.abs(enemyBullets.vy[i]) > 0.25 * step) { enemyBullets.vx[i] *= slow; enemyBullets.vy[i] *= slow; }
+                        break;
+                    case FREEZE:
+                        enemyBullets.vx[i] = 0; enemyBullets.vy[i] = 0;
+                        break;
+                    case DESTRUCTIBLE:
+                        damageWall(w);
+                        break;
+                    case THROUGH:
+                        break;
+                }
+                if (collided) break;
+            }
+            double ex = enemyBullets.x[i], ey = enemyBullets.y[i];
+            if (collided || ex < camX - 80 || ex > camX + screenW + 80 || ey < camY - 80 || ey > camY + screenH + 80) { enemyBullets.remove(i); continue; }
+
+            // player hit (shield blocks)
+            int prx = playerX - playerSize / 2, pry = playerY - playerSize / 2;
+            if (!shieldActive && Aabb.segmentIntersects(sx, sy, ex, ey, prx, pry, prx + playerSize, pry + playerSize)) {
+                takeDamage(enemyBullets.damage[i]);
+                enemyBullets.remove(i);
+                continue;
+            } else if (shieldActive && shield != null && shield.contains(ex, ey)) {
+                // shield blocks bullet
+                enemyBullets.remove(i);
+                continue;
+            }
+
+            // friendly-fire: enemy bullet can hit other enemies if enabled
+            if (friendlyFire) {
+                int e = friendlyFireHit(enemyBullets.owner[i], sx, sy, ex, ey);
+                if (e >= 0) {
+                    enemies.hp[e] -= enemyBullets.damage[i];
+                    enemyBullets.remove(i);
+                    continue;
+                }
+            }
+            i++;
+        }
+
+        t = lap(M_ENEMY_BULLETS, t);
+
+        // --- enemies update ---
+        updateFlowField();
+        if (chunked) crowd.update(enemies, activeX0, activeY0, activeX1, activeY1, flowField);
+        else crowd.update(enemies, -80, -80, screenW + 80, screenH + 80, flowField);
+        updateEnemies(now);
+        int px0 = playerX - playerSize / 2, py0 = playerY - playerSize / 2;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.intersects(i, px0, py0, px0 + playerSize, py0 + playerSize) && !shieldActive) {
+                takeDamage(contactDamage(enemies.type[i]));
+            }
+        }
+
+        t = lap(M_ENEMIES, t);
+
+        // --- bullets vs enemies ---
+        if (stressMode) fillStress();
+        rebuildEnemyGrid(); // einmal pro Tick, danach für Bullets, Orbitals und Towers
+        long collideStart = System.nanoTime();
+        if (bruteForce) collideBulletsBruteForce(); else collideBulletsGrid();
+        if (stressReport && stressMode) reportStress(System.nanoTime() - collideStart);
+        t = lap(M_COLLISIONS, t);
+
+        // --- orbital weapons (swords + shield saw) ---
+        swordAngle += 0.02 * step;
+        updateOrbitals();
+        t = lap(M_ORBITALS, t);
+
+        // --- towers (Zielsuche im Enemy-Grid, deshalb vor dem Entfernen toter Enemies) ---
+        for (int i = 0; i < towers.size(); i++) updateTower(i, now);
+        lap(M_TOWERS, t);
+
+        // --- remove dead enemies + score, aus den aktiven Chunks gelaufene ruhen lassen (Kompaktierung in-place, Reihenfolge bleibt) ---
+        int alive = 0;
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.hp[i] <= 0) {
+                int type = enemies.type[i];
+                score += type == 2 ? 5 : (type == 1 ? 3 : 2);
+                GameEvents.enemy(false, type, enemies.x[i], enemies.y[i], enemies.hp[i]);
+            } else if (!active(enemies.x[i], enemies.y[i])) makeDormant(i);
+            else enemies.move(i, alive++);
+        }
+        enemies.truncate(alive);
+
+        // --- health packs pickup ---
+        px0 = playerX - playerSize / 2; py0 = playerY - playerSize / 2;
+        for (int i = healthPacks.size() - 1; i >= 0; i--) {
+            if (healthPacks.intersects(i, px0, py0, px0 + playerSize, py0 + playerSize)) {
+                playerHP = Math.min(playerHPMax, playerHP + 25);
+                healthPacks.remove(i);
+            } else if (now - healthPacks.born[i] > 15000) healthPacks.remove(i);
+        }
+
+        if(playerHP > playerHPMax) playerHP = playerHPMax;
+
+        // --- upgrades progression ---
+        checkUpgrades();
+
+        // --- shield (Saw-Schaden läuft über die Orbitals) ---
+        if (shieldActive && shield != null) {
+            if (now - shieldActivatedAt > shieldDuration) {
+                shieldActive = false;
+                lastShieldUsed = now;
+                shield = null;
+            }
+        }
+
+        // --- wave cleared handling ---
+        if (totalSpawned >= maxTotalEnemies && enemies.isEmpty() && dormantCount == 0 && !waveCleared) {
+            waveCleared = true;
+            notifyMessage = "WAVE CLEARED! Bonus: +20 score | Press SPACE to continue";
+            score += 20;
+            // small heal bonus
+            playerHP = Math.min(playerHPMax, playerHP + 20);
+        }
+    }
+
+    // Spieler-/Tower-Bullets bewegen + Wall-Effekte, entfernt gestoppte und abgeflogene Bullets
+    void updateBullets() {
+        bullets.move();
+        for (int i = 0; i < bullets.size(); ) {
+            boolean removed = false;
+
+            double sx = bullets.px[i], sy = bullets.py[i];
+            int wn = wallHits(bullets, i);
+            int[] wallHits = wallIndex.result();
+            double stop = firstStop(wn, wallHits, sx, sy, bullets.x[i], bullets.y[i]);
+            for (int k = 0; k < wn; k++) {
+                Wall w = wallIndex.get(wallHits[k]);
+                if (wallIndex.segmentEntry(wallHits[k], sx, sy, bullets.x[i], bullets.y[i]) > stop) continue; // hinter einer STOP-Wall
+                switch (w.type) {
+                    case STOP:
+                        removed = true; // bullet stops
+                        break;
+                    case SLOW:
+                        if (Math.abs(bullets.vx[i]) > 0.25 * step || Math.abs(bullets.vy[i]) > 0.25 * step) { bullets.vx[i] *= slow; bullets.vy[i] *= slow; } // slow down
+                        break;
+                    case FREEZE:
+                        bullets.vx[i] = 0; bullets.vy[i] = 0; // stop bullet
+                        break;
+                    case DESTRUCTIBLE:
+                        damageWall(w);
+                        // bullet passes through
+                        break;
+                    case THROUGH:
+                        // nothing
+                        break;
+                }
+                if (removed) break;
+            }
+            double bx = bullets.x[i], by = bullets.y[i];
+            if (removed || bx < camX - 50 || bx > camX + screenW + 50 || by < camY - 50 || by > camY + screenH + 50) { bullets.remove(i); continue; }
+            i++;
+        }
+    }
+
+    // Walls, die Bullet i in diesem Tick trifft (ganze Strecke seit dem letzten Tick); IDs in wallIndex.result()
+    private int wallHits(BulletPool pool, int i) {
+        return wallIndex.querySegment(pool.px[i], pool.py[i], pool.x[i], pool.y[i]);
+    }
+
+    // Eintritt in die erste STOP-Wall entlang der Strecke (1 = keine): Walls dahinter erreicht die Bullet nicht mehr
+    private double firstStop(int n, int[] hits, double x0, double y0, double x1, double y1) {
+        double stop = 1;
+        for (int k = 0; k < n; k++)
+            if (wallIndex.get(hits[k]).type == Wall.Type.STOP) stop = Math.min(stop, wallIndex.segmentEntry(hits[k], x0, y0, x1, y1));
+        return stop;
+    }
+
+    // Enemies (Index in enemies) nach der Bewegung ins Grid; gültig bis tote Enemies entfernt werden.
+    // In der großen Welt über die aktiven Chunks - ruhende Enemies sind nicht in enemies und können nicht getroffen werden
+    void rebuildEnemyGrid() {
+        if (chunked) enemyGrid.reset(activeX0, activeY0, activeX1, activeY1);
+        else enemyGrid.reset(-80, -80, screenW + 80, screenH + 80);
+        int[] x = enemies.x, y = enemies.y, size = enemies.size;
+        for (int i = 0; i < enemies.size(); i++) enemyGrid.insert(i, x[i] - size[i], y[i] - size[i], x[i] + size[i], y[i] + size[i]);
+    }
+
+    // Friendly-Fire über das Enemy-Grid: getroffene Enemy mit dem kleinsten Index (wie die frühere lineare Schleife),
+    // die schießende Enemy (owner = id) ausgenommen; -1 ohne Treffer
+    private int friendlyFireHit(int owner, double sx, double sy, double ex, double ey) {
+        int n = enemyGrid.querySegment(sx, sy, ex, ey);
+        int[] hits = enemyGrid.result();
+        int best = -1;
+        for (int k = 0; k < n; k++) {
+            int e = hits[k];
+            if ((best >= 0 && e > best) || enemies.id[e] == owner) continue;
+            if (enemies.intersectsSegment(e, sx, sy, ex, ey)) best = e;
+        }
+        return best;
+    }
+
+    // Broad-phase: jede Bullet testet nur die Enemies der Zellen entlang ihrer Strecke.
+    // Ergebnis identisch zur Brute-Force-Variante (jede getroffene Enemy bekommt Schaden).
+    private void collideBulletsGrid() {
+        for (int i = 0; i < bullets.size(); ) {
+            double sx = bullets.px[i], sy = bullets.py[i];
+            int n = enemyGrid.querySegment(sx, sy, bullets.x[i], bullets.y[i]);
+            int[] hits = enemyGrid.result();
+            boolean dead = false;
+            for (int k = 0; k < n; k++) {
+                int e = hits[k];
+                if (enemies.intersectsSegment(e, sx, sy, bullets.x[i], bullets.y[i])) {
+                    enemies.hp[e] -= bullets.damage[i];
+                    dead = true;
+                }
+            }
+            if (dead) bullets.remove(i); else i++;
+        }
+    }
+
+    // alte O(bullets * enemies) Variante, nur noch als Vergleich für den Stress-Modus (--brute)
+    private void collideBulletsBruteForce() {
+        for (int i = 0; i < bullets.size(); ) {
+            boolean dead = false;
+            for (int e = 0; e < enemies.size(); e++) {
+                if (enemies.intersectsSegment(e, bullets.px[i], bullets.py[i], bullets.x[i], bullets.y[i])) {
+                    enemies.hp[e] -= bullets.damage[i];
+                    dead = true;
+                }
+            }
+            if (dead) bullets.remove(i); else i++;
+        }
+    }
+
+    void enableStress(boolean brute) { enableStress(brute, STRESS_ENEMIES, STRESS_BULLETS, true); }
+
+    // feste Population (Enemies/Bullets werden jeden Tick aufgefüllt), report = Kollisionszeit alle 120 Ticks ausgeben
+    void enableStress(boolean brute, int enemies, int bullets, boolean report) {
+        stressMode = true;
+        bruteForce = brute;
+        stressEnemies = enemies;
+        stressBullets = bullets;
+        stressReport = report;
+        titleScreen = false;
+        resetForNewGame();
+    }
+
+    // hält Enemies/Bullets auf Stress-Niveau (Enemies über die ganze Welt verteilt, Bullets im Ausschnitt in zufällige Richtungen)
+    void fillStress() {
+        while (enemies.size() + dormantCount < stressEnemies) addEnemy(rnd.nextInt(worldW()), rnd.nextInt(worldH()), rnd.nextInt(3));
+        while (bullets.size() < stressBullets) {
+            double a = rnd.nextDouble() * Math.PI * 2;
+            bullets.add(camX + rnd.nextInt(screenW), camY + rnd.nextInt(screenH), StrictMath.cos(a) * 10 * step, StrictMath.sin(a) * 10 * step, 1, -1);
+        }
+    }
+
+    private void reportStress(long nanos) {
+        stressNanos += nanos;
+        if (++stressTicks < 120) return;
+        System.out.printf("stress [%s] enemies=%d bullets=%d  bullets-vs-enemies avg %.1f us/tick%n",
+                bruteForce ? "brute" : "grid", enemies.size(), bullets.size(), stressNanos / 1000.0 / stressTicks);
+        stressNanos = 0;
+        stressTicks = 0;
+    }
+
+    void addWall(Wall w) {
+        wallIndex.add(w, w.x, w.y, w.w, w.h);
+        wallVersion++;
+        if (w.blocksPlayer()) flowDirty = true;
+    }
+
+    private void removeWall(Wall w) {
+        wallIndex.remove(w);
+        wallVersion++;
+        if (w.blocksPlayer()) { // Flow-Field erst im Enemy-Update reparieren, die Aufrufer laufen noch über wallIndex.result()
+            if (flowOpenedCount + 4 > flowOpened.length) flowOpened = Arrays.copyOf(flowOpened, flowOpened.length * 2);
+            flowOpened[flowOpenedCount++] = w.x; flowOpened[flowOpenedCount++] = w.y;
+            flowOpened[flowOpenedCount++] = w.x + w.w; flowOpened[flowOpenedCount++] = w.y + w.h;
+        }
+    }
+
+    // Flow-Field aktuell halten: nach neuen Walls/Bereich komplett, alle flowEveryTicks eine Breitensuche, wenn der
+    // Spieler die Zelle gewechselt hat, und zerstörte Walls nur lokal (repair)
+    private void updateFlowField() {
+        if (flowDirty) {
+            int x0 = chunked ? activeX0 : 0, y0 = chunked ? activeY0 : 0, x1 = chunked ? activeX1 : screenW, y1 = chunked ? activeY1 : screenH;
+            flowField.reset(x0, y0, x1, y1);
+            blockWalls(x0, y0, x1, y1);
+            flowField.compute(playerX, playerY);
+            flowDirty = false;
+            flowOpenedCount = 0;
+            return;
+        }
+        for (int k = 0; k < flowOpenedCount; k += 4) {
+            int x0 = flowOpened[k], y0 = flowOpened[k + 1], x1 = flowOpened[k + 2], y1 = flowOpened[k + 3];
+            flowField.unblock(x0, y0, x1, y1);
+            blockWalls(x0, y0, x1, y1); // andere Walls, die dieselben Zellen berühren
+            flowField.repair(x0, y0, x1, y1);
+        }
+        flowOpenedCount = 0;
+        if (tickCount % flowEveryTicks == 0 && flowField.cellOf(playerX, playerY) != flowField.target()) flowField.compute(playerX, playerY);
+    }
+
+    // sperrt im Flow-Field die Zellen aller blockierenden Walls, die das Rechteck berühren
+    private void blockWalls(int x0, int y0, int x1, int y1) {
+        int n = wallIndex.queryRect(x0, y0, x1, y1);
+        int[] hits = wallIndex.result();
+        for (int k = 0; k < n; k++) {
+            Wall w = wallIndex.get(hits[k]);
+            if (w.blocksPlayer()) flowField.block(w.x, w.y, w.x + w.w, w.y + w.h);
+        }
+    }
+
+    private void damageWall(Wall w) {
+        w.hp--;
+        wallVersion++; // HP-Anzeige ändert sich
+        if (w.hp <= 0) removeWall(w);
+    }
+
+    // true wenn eine STOP/DESTRUCTIBLE Wall das halboffene Rechteck [x0, x1) x [y0, y1) schneidet
+    private boolean blockedByWall(int x0, int y0, int x1, int y1) {
+        int n = wallIndex.queryRect(x0, y0, x1, y1);
+        int[] hits = wallIndex.result();
+        for (int k = 0; k < n; k++) if (wallIndex.get(hits[k]).blocksPlayer()) return true;
+        return false;
+    }
+
+    // Orbital weapons: alle Sword-Positionen (beide Ringe) + Shield-Saw einmal pro Tick berechnen,
+    // dann eine Grid-Query um den Spieler und jede Kandidaten-Enemy gegen alle Orbitals testen (1 Schaden pro Treffer).
+    private void updateOrbitals() {
+        orbitalCount = 0;
+        int innerSwords = Math.min(8, swordCount);
+        int outerSwords = Math.min(16, swordCount - innerSwords);
+        for (int i = 0; i < innerSwords; i++) addOrbital(swordAngle + i * (2 * Math.PI) / innerSwords, 50);          // inner ring
+        for (int i = 0; i < outerSwords; i++) addOrbital(-swordAngle + i * (2 * Math.PI) / outerSwords, 100);      // outer ring, gegenläufig
+        if (shieldActive && shield != null) {
+            shield.x = playerX; shield.y = playerY;
+            shield.angle += 0.12 * step;
+            addOrbital(shield.angle, shield.radius); // saw effect: little damage on contact
+        }
+        if (orbitalCount == 0) return;
+
+        int reach = 0;
+        for (int o = 0; o < orbitalCount; o++) reach = Math.max(reach, Math.max(Math.abs(orbitalX[o] - playerX), Math.abs(orbitalY[o] - playerY)));
+        int n = enemyGrid.queryRect(playerX - reach, playerY - reach, playerX + reach + 1, playerY + reach + 1);
+        int[] hits = enemyGrid.result();
+        for (int k = 0; k < n; k++) {
+            int e = hits[k], s = enemies.size[e];
+            int x0 = enemies.x[e] - s, y0 = enemies.y[e] - s, x1 = enemies.x[e] + s, y1 = enemies.y[e] + s;
+            for (int o = 0; o < orbitalCount; o++)
+                if (Aabb.contains(x0, y0, x1, y1, orbitalX[o], orbitalY[o])) enemies.hp[e] -= 1;
+        }
+    }
+
+    // bestes lebendes Ziel (Zeile in enemies) im Radius um (x, y) nach Policy, -1 wenn keins. Nutzt das Enemy-Grid dieses Ticks,
+    // verglichen wird auf quadrierten Abständen (kein sqrt); Gleichstand -> näher, dann kleinerer Index (= Listenreihenfolge)
+    int findTarget(int x, int y, int range, Targeting policy) {
+        int n = enemyGrid.queryRect(x - range, y - range, x + range + 1, y + range + 1);
+        int[] hits = enemyGrid.result();
+        long range2 = (long) range * range;
+        int best = -1;
+        long bestDist = 0;
+        for (int k = 0; k < n; k++) {
+            int idx = hits[k];
+            if (enemies.hp[idx] <= 0) continue; // in diesem Tick schon tot
+            long dx = enemies.x[idx] - x, dy = enemies.y[idx] - y, d2 = dx * dx + dy * dy;
+            if (d2 > range2) continue;
+            if (best >= 0) {
+                int c = policy.compare(enemies, idx, best);
+                if (c > 0 || c == 0 && (d2 > bestDist || d2 == bestDist && idx > best)) continue;
+            }
+            best = idx; bestDist = d2;
+        }
+        return best;
+    }
+
+    private void addOrbital(double angle, int radius) {
+        orbitalX[orbitalCount] = playerX + (int) (StrictMath.cos(angle) * radius); // StrictMath: gleich auf jeder JVM (Replay)
+        orbitalY[orbitalCount] = playerY + (int) (StrictMath.sin(angle) * radius);
+        orbitalCount++;
+    }
+
+    private void takeDamage(int dmg) {
+        if (stressMode) return; // Spieler unverwundbar im Stress-Modus
+        playerHP -= dmg;
+        totalDamageTaken += dmg;
+        lastDamage = dmg;
+        lastDamageTime = clock.now();
+        if (playerHP <= 0) { playerHP = 0; gameOver = true; }
+    }
+
+    private void checkUpgrades() {
+        if (score - lastUpgradeScore < config.upgradeStep) return;
+        int s = (int) (score / config.upgradeScale); // Schwellen unten gelten für upgradeScale = 1
+        int swords0 = swordCount, reload0 = reloadTime, size0 = bulletSize, delay0 = fireDelay, hp0 = playerHP;
+
+        // Sword upgrades
+        if(score % 15 >= 0 && swordCount < 24) swordCount++;
+
+        // Reload time upgrades
+        if (s >= 40) reloadTime = 3000;
+        if (s >= 100) reloadTime = 1500;
+        if (s >= 140) reloadTime = 500;
+        if (s >= 160) reloadTime = 150;
+
+        // Bullet size upgrades
+        if (s >= 60) bulletSize = 9;
+        if (s >= 200) bulletSize = 20;
+
+        // HP bonuses
+        if (s >= 80 && playerHP < playerHPMax) playerHP += 25;
+        if (s >= 120 && playerHP < playerHPMax) playerHP += 45;
+
+        // Fire rate upgrades
+        if (s >= 20 && fireDelay > 400) fireDelay = 400;
+        if (s >= 60 && fireDelay > 300) fireDelay = 300;
+        if (s >= 120 && fireDelay > 200) fireDelay = 200;
+        if (s >= 180 && fireDelay > 120) fireDelay = 120;
+        if (s >= 250 && fireDelay > 80) fireDelay = 80;
+        if (s >= 500 && fireDelay > 1) fireDelay = 1;
+        lastUpgradeScore = score;
+        if (swordCount != swords0 || reloadTime != reload0 || bulletSize != size0 || fireDelay != delay0 || playerHP != hp0)
+            GameEvents.upgrade(score, swordCount, reloadTime, bulletSize, fireDelay, playerHP);
+    }
+
+    private void fireBullet() {
+        if (gameOver || reloading || placingTower || paused) return;
+        long now = clock.now();
+        if (now - lastShot < fireDelay) return;
+
+        if (ammo <= 0) { reloading = true; reloadStart = now; return; }
+
+        double dx = camX + mouseX - playerX, dy = camY + mouseY - playerY; // Maus in Bildschirm-Koordinaten
+        double len = Math.sqrt(dx * dx + dy * dy);
+        if (len == 0) return;
+        double speed = 10 * step;
+        bullets.add(playerX, playerY, dx / len * speed, dy / len * speed, 1, -1);
+        ammo--;
+        lastShot = now;
+    }
+
+    private void restartGame() {
+        playerHP = playerHPMax; totalDamageTaken = 0; ammo = 35; score = 0; totalSpawned = 0;
+        bullets.clear(); clearEnemies(); enemyBullets.clear(); towers.clear(); healthPacks.clear();
+        swordCount = 0; swordAngle = 0.001; reloadTime = 500; bulletSize = 6; lastUpgradeScore = 0;
+        gameOver = false; titleScreen = false;
+        waveCleared = false; notifyMessage = "";
+        maxTotalEnemies = config.firstWaveEnemies;
+        wave = 1;
+        lastShieldUsed = LONG_AGO;
+        lastShot = LONG_AGO;
+    }
+
+    private void resetForNewGame() {
+        restartGame();
+    }
+
+    private void startNextWave() {
+        waveCleared = false;
+        totalSpawned = 0;
+        clearEnemies();
+        maxTotalEnemies += config.waveRamp; // ramp up difficulty per wave
+        wave++;
+        notifyMessage = "";
+        GameEvents.waveTransition(wave - 1, wave, maxTotalEnemies, score);
+    }
+
+    private void clearEnemies() {
+        if (GameEvents.enemyEnabled())
+            for (int i = 0; i < enemies.size(); i++) GameEvents.enemy(false, enemies.type[i], enemies.x[i], enemies.y[i], enemies.hp[i]);
+        enemies.clear();
+        if (dormantCount > 0) {
+            for (Archetype chunk : dormant) {
+                if (chunk == null) continue;
+                if (GameEvents.enemyEnabled())
+                    for (int i = 0; i < chunk.size(); i++) GameEvents.enemy(false, chunk.type[i], chunk.x[i], chunk.y[i], chunk.hp[i]);
+                chunk.clear();
+            }
+            dormantCount = 0;
+        }
+    }
+
+    /** Tower-Zielwahl; compare < 0 heißt a ist das bessere Ziel (Gleichstand entscheidet die Distanz). */
+    enum Targeting {
+        NEAREST, LOWEST_HP, HIGHEST_TYPE;
+
+        static final Targeting[] VALUES = values();
+
+        // a, b = Zeilen in enemies
+        int compare(Archetype enemies, int a, int b) {
+            switch (this) {
+                case LOWEST_HP: return Integer.compare(enemies.hp[a], enemies.hp[b]);
+                case HIGHEST_TYPE: return Integer.compare(enemies.type[b], enemies.type[a]);
+                default: return 0;
+            }
+        }
+    }
+
+    /** Balancing-Parameter, Defaults = Originalspiel. */
+    static final class Config {
+        int maxActiveEnemies = 30;   // active concurrent enemies
+        int firstWaveEnemies = 50;   // maxTotalEnemies der ersten Wave
+        int waveRamp = 10;           // + Enemies pro Wave
+        int towerRange = 220;
+        Targeting towerTargeting = Targeting.NEAREST;
+        int upgradeStep = 10;        // Score-Abstand zwischen zwei checkUpgrades()
+        double upgradeScale = 1.0;   // Faktor auf alle Score-Schwellen in checkUpgrades()
+        int worldW = 0, worldH = 0;  // > 0: Welt größer als das Fenster, Kamera + Chunks
+        int mapWalls = 0;            // zusätzliche zufällige Walls über die ganze Welt
+        String map = null;           // Pfad einer Binärkarte (MapFile), ersetzt worldW/worldH und die Beispiel-Walls
+    }
+
+    // --- Entities anlegen + Systeme (Archetype-Zeilen statt Objekte) ---
+
+    // Bounds sind halboffen wie java.awt.Rectangle: [x - size, x + size) x [y - size, y + size). Zeile in enemies, -1 = ruht
+    int addEnemy(int x, int y, int type) {
+        int r = enemies.add();
+        enemies.x[r] = x; enemies.y[r] = y; enemies.prevX[r] = x; enemies.prevY[r] = y;
+        enemies.type[r] = type;
+        int hp;
+        if (type == 0) { enemies.size[r] = 18; hp = 4; }
+        else if (type == 1) { enemies.size[r] = 20; hp = 6; }
+        else { enemies.size[r] = 24; hp = 10; }
+        enemies.hp[r] = hp; enemies.maxHp[r] = hp;
+        enemies.lastFire[r] = LONG_AGO; // Fähigkeit sofort bereit
+        GameEvents.enemy(true, type, x, y, hp);
+        if (!active(x, y)) { makeDormant(r); enemies.truncate(r); return -1; } // außerhalb der aktiven Chunks gleich ruhend
+        return r;
+    }
+
+    int addTower(int x, int y) {
+        int r = towers.add();
+        towers.x[r] = x; towers.y[r] = y; towers.prevX[r] = x; towers.prevY[r] = y;
+        towers.range[r] = config.towerRange;
+        towers.level[r] = 1;
+        towers.targeting[r] = config.towerTargeting.ordinal();
+        towers.lastFire[r] = LONG_AGO;
+        return r;
+    }
+
+    private void addHealthPack(int x, int y, long now) {
+        int r = healthPacks.add();
+        healthPacks.x[r] = x; healthPacks.y[r] = y; healthPacks.prevX[r] = x; healthPacks.prevY[r] = y;
+        healthPacks.size[r] = 20;
+        healthPacks.born[r] = now;
+    }
+
+    // Enemy-System: Richtung Spieler steuern (VELOCITY), bewegen falls keine Wall im Weg, Fähigkeit (WEAPON.lastFire):
+    // Typ 1 schießt auf den Spieler, Typ 2 heilt sich
+    private void updateEnemies(long now) {
+        int[] x = enemies.x, y = enemies.y, size = enemies.size, type = enemies.type, hp = enemies.hp, maxHp = enemies.maxHp;
+        double[] vx = enemies.vx, vy = enemies.vy;
+        long[] lastAbility = enemies.lastFire;
+        for (int i = 0; i < enemies.size(); i++) {
+            double dx = playerX - x[i], dy = playerY - y[i];
+            double len = Math.sqrt(dx * dx + dy * dy);
+            double baseSpeed = (type[i] == 0 ? 3.0 : (type[i] == 1 ? 2.0 : 1.2)) * step;
+            int d = flowField.direction(x[i], y[i]);
+            if (d != FlowField.NONE) { // Flow-Field: zur Mitte der nächsten Zelle
+                double fx = flowField.nextX(x[i], d) - x[i], fy = flowField.nextY(y[i], d) - y[i], flen = Math.sqrt(fx * fx + fy * fy);
+                vx[i] = fx / flen * baseSpeed; vy[i] = fy / flen * baseSpeed;
+            } else if (len > 0) { // Ziel-Zelle oder außerhalb des Felds: gerade auf den Spieler zu
+                vx[i] = dx / len * baseSpeed; vy[i] = dy / len * baseSpeed;
+            } else { vx[i] = 0; vy[i] = 0; }
+            // Schwarmkräfte (Crowd) dazu, schneller als baseSpeed wird niemand
+            vx[i] += crowd.fx[i] * baseSpeed; vy[i] += crowd.fy[i] * baseSpeed;
+            double v = Math.sqrt(vx[i] * vx[i] + vy[i] * vy[i]);
+            if (v > baseSpeed) { vx[i] *= baseSpeed / v; vy[i] *= baseSpeed / v; }
+            // gerundet und an Walls entlang gleiten statt stehen bleiben
+            int s = size[i], nextX = x[i] + (int) Math.round(vx[i]), nextY = y[i] + (int) Math.round(vy[i]);
+            if (!blockedByWall(nextX - s, nextY - s, nextX + s, nextY + s)) { x[i] = nextX; y[i] = nextY; }
+            else if (nextX != x[i] && !blockedByWall(nextX - s, y[i] - s, nextX + s, y[i] + s)) x[i] = nextX;
+            else if (nextY != y[i] && !blockedByWall(x[i] - s, nextY - s, x[i] + s, nextY + s)) y[i] = nextY;
+            if (type[i] == 1 && now - lastAbility[i] > 900 && len > 0) {
+                enemyBullets.add(x[i], y[i], dx / len * 4 * step, dy / len * 4 * step, 5, enemies.id[i]); // owner: to avoid hitting origin immediately
+                lastAbility[i] = now;
+            } else if (type[i] == 2 && now - lastAbility[i] > 2000 && hp[i] < maxHp[i]) {
+                hp[i] = Math.min(maxHp[i], hp[i] + 2);
+                lastAbility[i] = now;
+            }
+        }
+    }
+
+    private static int contactDamage(int type) { return type == 2 ? 3 : (type == 0 ? 2 : 1); }
+
+    // Tower-System (eine Zeile): bei abgelaufenem Cooldown aufs beste Ziel im Enemy-Grid schießen
+    void updateTower(int t, long now) {
+        int level = towers.level[t];
+        int cooldown = Math.max(100, 500 - (level - 1) * 100);
+        if (now - towers.lastFire[t] < cooldown) return;
+        int x = towers.x[t], y = towers.y[t];
+        int target = findTarget(x, y, towers.range[t], Targeting.VALUES[towers.targeting[t]]);
+        if (target >= 0) {
+            double dx = enemies.x[target] - x, dy = enemies.y[target] - y, len = Math.sqrt(dx * dx + dy * dy);
+            bullets.add(x, y, dx / len * 10 * step, dy / len * 10 * step, 1 + (level - 1), -1);
+            towers.lastFire[t] = now;
+        }
+    }
+
+    // Bullets/EnemyBullets: siehe BulletPool (Structure-of-Arrays, owner = Enemy-id für Friendly-Fire)
+
+    class Wall {
+        int x, y, w, h, hp = 0;
+        Type type;
+        boolean destructible = false;
+        enum Type { STOP, SLOW, THROUGH, FREEZE, DESTRUCTIBLE }
+        Wall(int x, int y, int w, int h, Type type) { this.x = x; this.y = y; this.w = w; this.h = h; this.type = type; destructible = type == Type.DESTRUCTIBLE; if (destructible) hp = 3; }
+        Wall(int x, int y, int w, int h, Type type, int hp) { this(x, y, w, h, type); this.hp = hp; }
+        boolean blocksPlayer() { return type == Type.STOP || type == Type.DESTRUCTIBLE; }
+        boolean blocksBullets() { return type == Type.STOP || type == Type.SLOW || type == Type.DESTRUCTIBLE || type == Type.FREEZE; }
+    }
+
+    class Shield {
+        int x, y, radius;
+        double angle = 0;
+        Shield(int x, int y, int radius) { this.x = x; this.y = y; this.radius = radius; }
+        boolean contains(double px, double py) {
+            double dx = px - x, dy = py - y;
+            return dx * dx + dy * dy <= radius * radius;
+        }
+    }
+}
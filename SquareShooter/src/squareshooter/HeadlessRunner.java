@@ -0,0 +1,112 @@
+package squareshooter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+/**
+ * HeadlessRunner - simuliert Spiele ohne Fenster so schnell wie möglich (Batch-Läufe auf dem Server, Balancing).
+ *
+ * Jedes Spiel ist eine eigene GameWorld mit Spielzeit aus dem Tick-Zähler; ein einfacher Bot spielt:
+ * zielt auf die nächste Enemy und hält Feuer, weicht aus, kauft Towers, nutzt das Shield und startet
+ * nach jeder Wave die nächste. Ein Spiel endet mit Game Over oder nach --ticks Ticks.
+ *
+ * Aufruf: java squareshooter.HeadlessRunner [--games 10] [--ticks 216000] [--hz 60] [--seed 1] [--record dir]
+ *             [--world 40000x40000] [--walls 100000] [--map maps/big.sqm]
+ * Spiel g hat den Seed seed + g; mit --record wird jedes Spiel als dir/game-N.sqr aufgenommen (ReplayRunner spielt ab).
+ * --world/--walls spielen in einer großen Welt mit Chunks und zufälligen Walls (Config.worldW/worldH/mapWalls),
+ * --map in einer Binärkarte (MapFile, Walls werden pro Chunk beim ersten Besuch geladen).
+ */
+final class HeadlessRunner {
+
+    public static void main(String[] args) throws IOException {
+        int games = 10, maxTicks = 60 * 60 * 60, hz = 60; // Standard: max. 1h Spielzeit pro Spiel
+        long seed = new SplittableRandom().nextLong();
+        Path record = null;
+        GameWorld.Config config = new GameWorld.Config();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--games": games = Integer.parseInt(args[i + 1]); break;
+                case "--ticks": maxTicks = Integer.parseInt(args[i + 1]); break;
+                case "--hz": hz = Integer.parseInt(args[i + 1]); break;
+                case "--seed": seed = Long.parseLong(args[i + 1]); break;
+                case "--record": record = Paths.get(args[i + 1]); break;
+                case "--world": {
+                    String[] wh = args[i + 1].split("x");
+                    config.worldW = Integer.parseInt(wh[0]);
+                    config.worldH = Integer.parseInt(wh[1]);
+                    break;
+                }
+                case "--walls": config.mapWalls = Integer.parseInt(args[i + 1]); break;
+                case "--map": config.map = args[i + 1]; break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        long totalTicks = 0, start = System.nanoTime();
+        for (int g = 0; g < games; g++) {
+            GameWorld world = new GameWorld(hz, config, seed + g);
+            Replay.Recorder recorder = record != null ? world.startRecording() : null;
+            Bot bot = new Bot();
+            world.confirm(); // Title Screen -> Spiel
+            while (!world.isGameOver() && world.tickCount() < maxTicks) {
+                bot.act(world);
+                world.tick();
+            }
+            totalTicks += world.tickCount();
+            if (recorder != null) {
+                Files.createDirectories(record);
+                recorder.finish(record.resolve("game-" + (g + 1) + ".sqr"), world.tickCount(), world.stateHash());
+            }
+            System.out.printf("game %d: wave %d, score %d, damage %d, %d ticks%s%n", g + 1, world.wave(), world.score(),
+                    world.totalDamageTaken(), world.tickCount(), world.isGameOver() ? "" : " (tick limit)");
+        }
+        double secs = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d games, %d ticks in %.2f s -> %.0f ticks/s (%.0fx realtime at %d Hz)%n",
+                games, totalTicks, secs, totalTicks / secs, totalTicks / secs / hz, hz);
+    }
+
+    // einfacher Bot: arbeitet nur über die Eingabe-Methoden der GameWorld, wie ein Spieler (Maus in Bildschirm-Koordinaten)
+    static final class Bot {
+        private boolean firing = false;
+
+        void act(GameWorld w) {
+            if (w.isWaveCleared()) { w.confirm(); return; }
+            int px = w.playerX(), py = w.playerY(), cx = w.camX(), cy = w.camY();
+
+            if (w.isPlacingTower()) { // Towers rund um den Spieler verteilen
+                w.setMouse(px - cx + (int) w.tickCount() % 120 - 60, py - cy + 60);
+                w.pressMouse();
+                w.releaseMouse();
+                firing = false;
+                return;
+            }
+            if (w.score() >= 100) { w.buyTowers(); return; }
+
+            int nearest = -1;
+            long best = Long.MAX_VALUE;
+            for (int i = 0; i < w.enemyCount(); i++) {
+                long dx = w.enemyX(i) - px, dy = w.enemyY(i) - py, d = dx * dx + dy * dy;
+                if (d < best) { best = d; nearest = i; }
+            }
+            if (nearest < 0) {
+                // nichts zu tun: zurück zur Mitte
+                w.setMovement(py > w.worldH() / 2 + 10, py < w.worldH() / 2 - 10, px > w.worldW() / 2 + 10, px < w.worldW() / 2 - 10);
+                if (firing) { w.releaseMouse(); firing = false; }
+                return;
+            }
+
+            int ex = w.enemyX(nearest), ey = w.enemyY(nearest);
+            w.setMouse(ex - cx, ey - cy);
+            if (!firing) { w.pressMouse(); firing = true; }
+
+            // zu nah: weg von der Enemy, sonst Richtung Mitte
+            boolean flee = best < 250 * 250;
+            int tx = flee ? px - (ex - px) : w.worldW() / 2, ty = flee ? py - (ey - py) : w.worldH() / 2;
+            w.setMovement(ty < py - 10, ty > py + 10, tx < px - 10, tx > px + 10);
+            if (best < 80 * 80 && w.shieldReady()) w.toggleShield();
+        }
+    }
+}
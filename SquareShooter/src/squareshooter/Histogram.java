@@ -0,0 +1,62 @@
+package squareshooter;
+
+/**
+ * Histogram - HDR-artig (log-linear) für positive long-Werte (Nanosekunden, Bytes), ohne Allokation beim Eintragen.
+ *
+ * Werte unter 128 exakt, darüber 64 Buckets pro Zweierpotenz: relativer Fehler höchstens 1/64 (~1.6 %)
+ * über den ganzen long-Bereich, bei festen 3712 Zählern. max bleibt exakt.
+ * Nicht threadsicher: ein Thread trägt ein und liest aus.
+ */
+final class Histogram {
+    private static final int SUB_BITS = 7, SUB = 1 << SUB_BITS, HALF = SUB / 2;
+    private final long[] counts = new long[(64 - SUB_BITS + 1) * HALF];
+    private long count, sum, max;
+
+    private static int index(long v) {
+        if (v < SUB) return (int) v;
+        int shift = 63 - Long.numberOfLeadingZeros(v) - (SUB_BITS - 1);
+        return shift * HALF + (int) (v >>> shift); // v >>> shift liegt in [HALF, SUB)
+    }
+
+    // größter Wert, der noch in Bucket i fällt
+    private static long highest(int i) {
+        if (i < SUB) return i;
+        int shift = i / HALF - 1;
+        return ((long) (i % HALF + HALF + 1) << shift) - 1;
+    }
+
+    void record(long value) {
+        if (value < 0) value = 0;
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if (value > max) max = value;
+    }
+
+    /** Obergrenze des Buckets, in dem das p-Quantil (0..1) liegt; 0 wenn leer. */
+    long percentile(double p) {
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(p * count)), seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) return Math.min(max, highest(i));
+        }
+        return max;
+    }
+
+    long count() { return count; }
+    long sum() { return sum; }
+    long max() { return max; }
+    double mean() { return count == 0 ? 0 : sum / (double) count; }
+
+    void reset() {
+        java.util.Arrays.fill(counts, 0);
+        count = sum = max = 0;
+    }
+
+    /** "n 300  p50 16.67  p95 17.10  p99 18.02  max 25.31 ms" (Werte in ns) */
+    String summary() {
+        return String.format("n %d  p50 %.2f  p95 %.2f  p99 %.2f  max %.2f ms", count,
+                percentile(0.50) / 1e6, percentile(0.95) / 1e6, percentile(0.99) / 1e6, max / 1e6);
+    }
+}
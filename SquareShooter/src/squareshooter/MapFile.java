@@ -0,0 +1,253 @@
+package squareshooter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * MapFile - Binärkarte (.sqm): Weltgröße, Walls (Rechteck, Wall.Type, HP) und Spawn-Zonen, nach Chunks sortiert.
+ *
+ * open() mappt die Datei nur (MappedByteBuffer) und liest Kopf, Spawn-Zonen und das Chunk-Verzeichnis; die Walls eines
+ * Chunks werden erst in load() dekodiert, wenn der Chunk zum ersten Mal gebraucht wird - eine Karte mit 100k Walls ist
+ * sofort offen, das Betriebssystem liest nur die Seiten der besuchten Chunks.
+ *
+ * Format (big-endian): "SQMP", Version, worldW, worldH, chunkSize, chunksX, chunksY, maxWallSize, Anzahl Spawn-Zonen,
+ * Anzahl Walls; Spawn-Zonen (x, y, w, h); Verzeichnis pro Chunk (erste Wall, Anzahl); Walls zu je 16 Bytes
+ * (x, y int; w, h short; type, 0 byte; hp short). Eine Wall gehört zum Chunk ihrer linken oberen Ecke, load() liest
+ * deshalb maxWallSize links/oben mehr. Die Textform (Builder.parse) ist zeilenweise:
+ * <pre>
+ * world 40000 40000
+ * chunk 1024
+ * wall x y w h STOP|SLOW|THROUGH|FREEZE|DESTRUCTIBLE [hp]
+ * spawn x y w h
+ * </pre>
+ * Aufruf: java squareshooter.MapFile convert map.txt map.sqm | random W H walls seed map.txt
+ */
+final class MapFile {
+    private static final int MAGIC = 0x53514d50, VERSION = 1, HEADER = 40, WALL_BYTES = 16;
+    static final GameWorld.Wall.Type[] TYPES = GameWorld.Wall.Type.values();
+
+    private final MappedByteBuffer buf;
+    private final int worldW, worldH, chunkSize, chunksX, chunksY, maxWallSize, wallCount;
+    private final int[] spawnX, spawnY, spawnW, spawnH;
+    private final int wallsOffset, directoryOffset;
+    private final boolean[] loaded;
+    private int loadedWalls;
+
+    /** Bekommt jede dekodierte Wall (type = Wall.Type.ordinal()). */
+    interface WallSink {
+        void wall(int x, int y, int w, int h, int type, int hp);
+    }
+
+    private MapFile(MappedByteBuffer buf) throws IOException {
+        this.buf = buf;
+        if (buf.capacity() < HEADER || buf.getInt(0) != MAGIC) throw new IOException("not a map file");
+        int version = buf.getInt(4);
+        if (version != VERSION) throw new IOException("unsupported map version " + version);
+        worldW = buf.getInt(8); worldH = buf.getInt(12);
+        chunkSize = buf.getInt(16); chunksX = buf.getInt(20); chunksY = buf.getInt(24);
+        maxWallSize = buf.getInt(28);
+        int spawns = buf.getInt(32);
+        wallCount = buf.getInt(36);
+        if (chunkSize <= 0 || chunksX <= 0 || chunksY <= 0 || spawns < 0 || wallCount < 0 || maxWallSize < 0)
+            throw new IOException("corrupt map header");
+        long chunks = (long) chunksX * chunksY;
+        if (HEADER + spawns * 16L + chunks * 8 + (long) wallCount * WALL_BYTES > buf.capacity()) throw new IOException("truncated map file");
+        spawnX = new int[spawns]; spawnY = new int[spawns]; spawnW = new int[spawns]; spawnH = new int[spawns];
+        for (int i = 0, p = HEADER; i < spawns; i++, p += 16) {
+            spawnX[i] = buf.getInt(p); spawnY[i] = buf.getInt(p + 4); spawnW[i] = buf.getInt(p + 8); spawnH[i] = buf.getInt(p + 12);
+        }
+        directoryOffset = HEADER + spawns * 16;
+        wallsOffset = directoryOffset + chunksX * chunksY * 8;
+        for (int c = 0; c < chunks; c++) { // Verzeichnis prüfen, damit load() nie außerhalb der Wall-Records liest
+            int first = buf.getInt(directoryOffset + c * 8), count = buf.getInt(directoryOffset + c * 8 + 4);
+            if (first < 0 || count < 0 || (long) first + count > wallCount) throw new IOException("corrupt chunk directory entry " + c);
+        }
+        loaded = new boolean[chunksX * chunksY];
+    }
+
+    /** Mappt die Datei (read-only); der Kanal wird gleich wieder geschlossen, das Mapping bleibt gültig. */
+    static MapFile open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new MapFile(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    int worldW() { return worldW; }
+    int worldH() { return worldH; }
+    int wallCount() { return wallCount; }
+    int loadedWalls() { return loadedWalls; }
+    int spawnCount() { return spawnX.length; }
+    int spawnX(int i) { return spawnX[i]; }
+    int spawnY(int i) { return spawnY[i]; }
+    int spawnW(int i) { return spawnW[i]; }
+    int spawnH(int i) { return spawnH[i]; }
+
+    /**
+     * Dekodiert alle noch nicht geladenen Chunks, deren Walls das Rechteck [x0, x1) x [y0, y1) berühren können,
+     * in Chunk-Reihenfolge (Zeile für Zeile). Liefert die Zahl neuer Walls.
+     */
+    int load(int x0, int y0, int x1, int y1, WallSink sink) {
+        int cx0 = Math.max(0, Math.floorDiv(x0 - maxWallSize, chunkSize)), cy0 = Math.max(0, Math.floorDiv(y0 - maxWallSize, chunkSize));
+        int cx1 = Math.min(chunksX - 1, Math.floorDiv(x1 - 1, chunkSize)), cy1 = Math.min(chunksY - 1, Math.floorDiv(y1 - 1, chunkSize));
+        int n = 0;
+        for (int cy = cy0; cy <= cy1; cy++)
+            for (int cx = cx0; cx <= cx1; cx++) {
+                int c = cy * chunksX + cx;
+                if (loaded[c]) continue;
+                loaded[c] = true;
+                int first = buf.getInt(directoryOffset + c * 8), count = buf.getInt(directoryOffset + c * 8 + 4);
+                for (int i = 0, p = wallsOffset + first * WALL_BYTES; i < count; i++, p += WALL_BYTES)
+                    sink.wall(buf.getInt(p), buf.getInt(p + 4), buf.getShort(p + 8) & 0xffff, buf.getShort(p + 10) & 0xffff,
+                            buf.get(p + 12), buf.getShort(p + 14));
+                n += count;
+            }
+        loadedWalls += n;
+        return n;
+    }
+
+    /** Alle Chunks dekodieren (z.B. zum Vergleich mit dem Text-Parser). */
+    int loadAll(WallSink sink) { return load(0, 0, worldW, worldH, sink); }
+
+    /** Karte im Speicher: aus der Textform gelesen oder erzeugt, schreibt Text- oder Binärform. */
+    static final class Builder {
+        int worldW = 1000, worldH = 800, chunkSize = 1024;
+        int walls, spawns;
+        int[] wallX = new int[64], wallY = new int[64], wallW = new int[64], wallH = new int[64], wallType = new int[64], wallHp = new int[64];
+        int[] spawnX = new int[4], spawnY = new int[4], spawnW = new int[4], spawnH = new int[4];
+
+        void wall(int x, int y, int w, int h, int type, int hp) {
+            if (w <= 0 || h <= 0 || w > 0xffff || h > 0xffff) throw new IllegalArgumentException("wall size out of range: " + w + "x" + h);
+            if (walls == wallX.length) {
+                int cap = walls * 2;
+                wallX = Arrays.copyOf(wallX, cap); wallY = Arrays.copyOf(wallY, cap); wallW = Arrays.copyOf(wallW, cap);
+                wallH = Arrays.copyOf(wallH, cap); wallType = Arrays.copyOf(wallType, cap); wallHp = Arrays.copyOf(wallHp, cap);
+            }
+            wallX[walls] = x; wallY[walls] = y; wallW[walls] = w; wallH[walls] = h; wallType[walls] = type; wallHp[walls] = hp;
+            walls++;
+        }
+
+        void spawn(int x, int y, int w, int h) {
+            if (spawns == spawnX.length) {
+                int cap = spawns * 2;
+                spawnX = Arrays.copyOf(spawnX, cap); spawnY = Arrays.copyOf(spawnY, cap);
+                spawnW = Arrays.copyOf(spawnW, cap); spawnH = Arrays.copyOf(spawnH, cap);
+            }
+            spawnX[spawns] = x; spawnY[spawns] = y; spawnW[spawns] = w; spawnH[spawns] = h;
+            spawns++;
+        }
+
+        /** Textform lesen; Fehler mit Zeilennummer. HP fehlt: 3 für DESTRUCTIBLE (wie new Wall), sonst 0. */
+        static Builder parse(Path file) throws IOException {
+            Builder b = new Builder();
+            try (BufferedReader in = Files.newBufferedReader(file)) {
+                String line;
+                int lineNo = 0;
+                while ((line = in.readLine()) != null) {
+                    lineNo++;
+                    int hash = line.indexOf('#');
+                    if (hash >= 0) line = line.substring(0, hash);
+                    line = line.trim();
+                    if (line.isEmpty()) continue;
+                    String[] t = line.split("\\s+");
+                    try {
+                        switch (t[0]) {
+                            case "world": b.worldW = Integer.parseInt(t[1]); b.worldH = Integer.parseInt(t[2]); break;
+                            case "chunk": b.chunkSize = Integer.parseInt(t[1]); break;
+                            case "spawn": b.spawn(Integer.parseInt(t[1]), Integer.parseInt(t[2]), Integer.parseInt(t[3]), Integer.parseInt(t[4])); break;
+                            case "wall": {
+                                GameWorld.Wall.Type type = GameWorld.Wall.Type.valueOf(t[5]);
+                                int hp = t.length > 6 ? Integer.parseInt(t[6]) : type == GameWorld.Wall.Type.DESTRUCTIBLE ? 3 : 0;
+                                b.wall(Integer.parseInt(t[1]), Integer.parseInt(t[2]), Integer.parseInt(t[3]), Integer.parseInt(t[4]), type.ordinal(), hp);
+                                break;
+                            }
+                            default: throw new IllegalArgumentException("unknown keyword " + t[0]);
+                        }
+                    } catch (RuntimeException e) {
+                        throw new IOException(file + ":" + lineNo + ": " + e.getMessage(), e);
+                    }
+                }
+            }
+            return b;
+        }
+
+        void writeText(Path file) throws IOException {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(file))) {
+                out.println("world " + worldW + " " + worldH);
+                out.println("chunk " + chunkSize);
+                for (int i = 0; i < spawns; i++) out.println("spawn " + spawnX[i] + " " + spawnY[i] + " " + spawnW[i] + " " + spawnH[i]);
+                for (int i = 0; i < walls; i++)
+                    out.println("wall " + wallX[i] + " " + wallY[i] + " " + wallW[i] + " " + wallH[i] + " " + TYPES[wallType[i]] + " " + wallHp[i]);
+            }
+        }
+
+        /** Binärform schreiben: Walls stabil nach Chunk sortiert (innerhalb eines Chunks in Text-Reihenfolge). */
+        void write(Path file) throws IOException {
+            int chunksX = Math.max(1, (worldW + chunkSize - 1) / chunkSize), chunksY = Math.max(1, (worldH + chunkSize - 1) / chunkSize);
+            int chunks = chunksX * chunksY, maxWallSize = 0;
+            int[] chunkOf = new int[walls], start = new int[chunks + 1];
+            for (int i = 0; i < walls; i++) {
+                int cx = Math.max(0, Math.min(chunksX - 1, Math.floorDiv(wallX[i], chunkSize)));
+                int cy = Math.max(0, Math.min(chunksY - 1, Math.floorDiv(wallY[i], chunkSize)));
+                chunkOf[i] = cy * chunksX + cx;
+                start[chunkOf[i] + 1]++;
+                maxWallSize = Math.max(maxWallSize, Math.max(wallW[i], wallH[i]));
+            }
+            for (int c = 0; c < chunks; c++) start[c + 1] += start[c];
+            int[] order = new int[walls], fill = Arrays.copyOf(start, chunks);
+            for (int i = 0; i < walls; i++) order[fill[chunkOf[i]]++] = i;
+
+            ByteBuffer out = ByteBuffer.allocate(HEADER + spawns * 16 + chunks * 8 + walls * WALL_BYTES);
+            out.putInt(MAGIC).putInt(VERSION).putInt(worldW).putInt(worldH).putInt(chunkSize).putInt(chunksX).putInt(chunksY)
+                    .putInt(maxWallSize).putInt(spawns).putInt(walls);
+            for (int i = 0; i < spawns; i++) out.putInt(spawnX[i]).putInt(spawnY[i]).putInt(spawnW[i]).putInt(spawnH[i]);
+            for (int c = 0; c < chunks; c++) out.putInt(start[c]).putInt(start[c + 1] - start[c]);
+            for (int k = 0; k < walls; k++) {
+                int i = order[k];
+                out.putInt(wallX[i]).putInt(wallY[i]).putShort((short) wallW[i]).putShort((short) wallH[i])
+                        .put((byte) wallType[i]).put((byte) 0).putShort((short) wallHp[i]);
+            }
+            Files.write(file, out.array());
+        }
+
+        /** Zufallskarte (Walls 16..63 px, freie Mitte, Spawn-Zonen in jedem zweiten Chunk der Diagonalen) für Tests/Benchmarks. */
+        static Builder random(int worldW, int worldH, int count, long seed) {
+            Builder b = new Builder();
+            b.worldW = worldW; b.worldH = worldH;
+            SplittableRandom rnd = new SplittableRandom(seed);
+            while (b.walls < count) {
+                int w = 16 + rnd.nextInt(48), h = 16 + rnd.nextInt(48);
+                int x = rnd.nextInt(Math.max(1, worldW - w)), y = rnd.nextInt(Math.max(1, worldH - h));
+                if (Math.abs(x + w / 2 - worldW / 2) < 200 && Math.abs(y + h / 2 - worldH / 2) < 200) continue;
+                int type = rnd.nextInt(TYPES.length);
+                b.wall(x, y, w, h, type, TYPES[type] == GameWorld.Wall.Type.DESTRUCTIBLE ? 10 : 0);
+            }
+            for (int c = 0; c * b.chunkSize < Math.min(worldW, worldH); c += 2) b.spawn(c * b.chunkSize, c * b.chunkSize, 200, 200);
+            return b;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("convert")) {
+            long start = System.nanoTime();
+            Builder b = Builder.parse(Paths.get(args[1]));
+            b.write(Paths.get(args[2]));
+            System.out.printf("%s: %d walls, %d spawn zones, %dx%d -> %s (%d bytes) in %.1f ms%n", args[1], b.walls, b.spawns,
+                    b.worldW, b.worldH, args[2], Files.size(Paths.get(args[2])), (System.nanoTime() - start) / 1e6);
+        } else if (args.length == 6 && args[0].equals("random")) {
+            Builder.random(Integer.parseInt(args[1]), Integer.parseInt(args[2]), Integer.parseInt(args[3]), Long.parseLong(args[4]))
+                    .writeText(Paths.get(args[5]));
+        } else {
+            throw new IllegalArgumentException("usage: MapFile convert map.txt map.sqm | random W H walls seed map.txt");
+        }
+    }
+}
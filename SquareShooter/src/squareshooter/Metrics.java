@@ -0,0 +1,132 @@
+package squareshooter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Metrics - Registry fester Histogramme (Index = Metrik), die pro Intervall (z.B. 1 s) zusammengefasst und geleert werden.
+ *
+ * Ein Registry gehört einem Thread (Simulation bzw. Renderer): record() ist ein Array-Zugriff ohne Sync/Allokation,
+ * roll() schreibt nach Ablauf des Intervalls count/p50/p90/p99/max/sum je Metrik in summary() - das ist
+ * die Zahlenreihe, die andere Threads sehen (GameWorld kopiert sie in den Snapshot) und die Export als CSV anhängt.
+ */
+final class Metrics {
+    // --- Aufbau von summary(): pro Metrik STATS Werte, am Ende die tatsächliche Intervalllänge in ns ---
+    static final int COUNT = 0, P50 = 1, P90 = 2, P99 = 3, MAX = 4, SUM = 5, STATS = 6;
+
+    private final String source;
+    private final String[] names;
+    private final Histogram[] histograms;
+    private final long[] summary;
+    private final long intervalNanos;
+    private final Export export;
+    private long intervalStart;
+    private int intervals;
+
+    Metrics(String source, long intervalNanos, Export export, String... names) {
+        this.source = source;
+        this.names = names;
+        this.intervalNanos = intervalNanos;
+        this.export = export;
+        histograms = new Histogram[names.length];
+        for (int i = 0; i < names.length; i++) histograms[i] = new Histogram();
+        summary = new long[names.length * STATS + 1];
+    }
+
+    void record(int metric, long value) { histograms[metric].record(value); }
+
+    /** Schließt das Intervall ab, wenn es abgelaufen ist; true = summary() ist neu. */
+    boolean roll(long now) {
+        if (intervalStart == 0) { intervalStart = now; return false; }
+        long elapsed = now - intervalStart;
+        if (elapsed < intervalNanos) return false;
+        for (int i = 0; i < histograms.length; i++) {
+            Histogram h = histograms[i];
+            int b = i * STATS;
+            summary[b + COUNT] = h.count();
+            summary[b + P50] = h.percentile(0.50);
+            summary[b + P90] = h.percentile(0.90);
+            summary[b + P99] = h.percentile(0.99);
+            summary[b + MAX] = h.max();
+            summary[b + SUM] = h.sum();
+            h.reset();
+        }
+        summary[summary.length - 1] = elapsed;
+        intervals++;
+        intervalStart = now;
+        if (export != null) export.write(source, names, summary);
+        return true;
+    }
+
+    long[] summary() { return summary; }
+    int intervals() { return intervals; }
+    String[] names() { return names; }
+
+    // --- Messquellen der JVM ---
+    private static final java.lang.management.ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final List<GarbageCollectorMXBean> GCS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /** Bisher vom aktuellen Thread allokierte Bytes (HotSpot), sonst 0. */
+    static long allocatedBytes() {
+        return THREADS instanceof com.sun.management.ThreadMXBean
+                ? ((com.sun.management.ThreadMXBean) THREADS).getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /** Anzahl GC-Läufe seit JVM-Start (alle Collector). */
+    static long gcCount() {
+        long n = 0;
+        for (int i = 0; i < GCS.size(); i++) n += Math.max(0, GCS.get(i).getCollectionCount());
+        return n;
+    }
+
+    /** Summierte GC-Zeit in ms seit JVM-Start (alle Collector). */
+    static long gcMillis() {
+        long ms = 0;
+        for (int i = 0; i < GCS.size(); i++) ms += Math.max(0, GCS.get(i).getCollectionTime());
+        return ms;
+    }
+
+    /**
+     * Export - CSV-Datei (-Dmetrics.out=...), eine Zeile pro Metrik und Intervall, von mehreren Registries geteilt.
+     * Spalten: time_ms,source,metric,count,p50,p90,p99,max,sum,interval_ns (Zeiten in ns, alloc_* in Bytes)
+     */
+    static final class Export implements AutoCloseable {
+        private final PrintWriter out;
+
+        private Export(PrintWriter out) {
+            this.out = out;
+            out.println("time_ms,source,metric,count,p50,p90,p99,max,sum,interval_ns");
+            out.flush();
+        }
+
+        /** null wenn path null ist oder die Datei nicht angelegt werden kann (dann ohne Export weiter). */
+        static Export open(String path) {
+            if (path == null) return null;
+            try {
+                return new Export(new PrintWriter(Files.newBufferedWriter(Paths.get(path))));
+            } catch (IOException e) {
+                System.err.println("metrics: cannot write " + path + " (" + e.getMessage() + ")");
+                return null;
+            }
+        }
+
+        synchronized void write(String source, String[] names, long[] summary) {
+            long time = System.currentTimeMillis();
+            for (int i = 0; i < names.length; i++) {
+                int b = i * STATS;
+                out.print(time + "," + source + "," + names[i]);
+                for (int k = 0; k < STATS; k++) out.print("," + summary[b + k]);
+                out.println("," + summary[summary.length - 1]);
+            }
+            out.flush();
+        }
+
+        @Override
+        public synchronized void close() { out.close(); }
+    }
+}
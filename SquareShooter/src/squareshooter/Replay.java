@@ -0,0 +1,226 @@
+package squareshooter;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Replay - kompakte Binär-Aufnahme einer Session (Lockstep): Seed, Config und Startzustand im Kopf, danach nur die
+ * Eingaben an die GameWorld mit ihrer Tick-Nummer. Gleicher Seed + gleiche Eingaben am gleichen Tick = bit-gleiche
+ * Simulation (Zeit nur aus der GameClock, Zufall nur aus dem geseedeten SplittableRandom, Trigonometrie mit StrictMath).
+ * Am Ende stehen Tick-Zahl und GameWorld.stateHash() - play() prüft damit, ob die Wiedergabe exakt war.
+ *
+ * Format: "SQRP", Version, simHz, seed, Config (alle Felder, Karten-Pfad "" = keine Karte), Bildschirmgröße, Stress-Modus;
+ * dann der Event-Block (Länge vorab), pro Event Tick-Abstand zum vorigen Event, Opcode, Argumente (Varint, Koordinaten
+ * zigzag); zuletzt Tick-Zahl und Hash.
+ * Maus/Bewegung/Größe werden nur bei Änderung geschrieben, eine typische Minute Spiel sind wenige KB.
+ */
+final class Replay {
+    private static final int MAGIC = 0x53515250, VERSION = 8; // nur diese Version wird gelesen, ältere Aufnahmen neu aufnehmen
+
+    // --- Opcodes = Eingabe-Methoden der GameWorld ---
+    static final int RESIZE = 1, MOVE = 2, MOUSE = 3, PRESS = 4, RELEASE = 5, BUY_TOWERS = 6, SHIELD = 7,
+            FRIENDLY_FIRE = 8, CONFIRM = 9, CANCEL = 10, RESUME = 11, RESTART = 12;
+
+    final int simHz;
+    final long seed;
+    final GameWorld.Config config;
+    final int screenW, screenH;
+    final int stress, stressEnemies, stressBullets; // stress: 0 aus, 1 Grid, 2 Brute-Force
+    private final byte[] events;
+    private int pos; // Leseposition in events beim Abspielen
+    final long ticks, hash;
+
+    private Replay(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) throw new IOException("not a replay file");
+        int version = in.readUnsignedByte();
+        if (version != VERSION) throw new IOException("unsupported replay version " + version);
+        simHz = in.readInt();
+        seed = in.readLong();
+        config = new GameWorld.Config();
+        config.maxActiveEnemies = in.readInt();
+        config.firstWaveEnemies = in.readInt();
+        config.waveRamp = in.readInt();
+        config.towerRange = in.readInt();
+        config.towerTargeting = GameWorld.Targeting.values()[in.readUnsignedByte()];
+        config.upgradeStep = in.readInt();
+        config.upgradeScale = in.readDouble();
+        config.worldW = in.readInt();
+        config.worldH = in.readInt();
+        config.mapWalls = in.readInt();
+        String map = in.readUTF();
+        config.map = map.isEmpty() ? null : map;
+        screenW = in.readInt();
+        screenH = in.readInt();
+        stress = in.readUnsignedByte();
+        stressEnemies = in.readInt();
+        stressBullets = in.readInt();
+        events = new byte[in.readInt()];
+        in.readFully(events);
+        ticks = in.readLong();
+        hash = in.readLong();
+    }
+
+    static Replay read(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            return new Replay(new DataInputStream(new java.io.BufferedInputStream(in)));
+        }
+    }
+
+    /** Neue GameWorld im aufgenommenen Startzustand (Seed, Config, Größe, Stress). */
+    GameWorld newWorld() {
+        GameWorld world = new GameWorld(simHz, config, seed);
+        world.resize(screenW, screenH);
+        if (stress != 0) world.enableStress(stress == 2, stressEnemies, stressBullets, false);
+        return world;
+    }
+
+    /** Spielt alle Events Tick für Tick ab, so schnell wie möglich; Ergebnis mit world.stateHash() gegen hash prüfen. */
+    GameWorld play() {
+        GameWorld world = newWorld();
+        pos = 0;
+        long eventTick = pos < events.length ? varint() : Long.MAX_VALUE;
+        while (world.tickCount() < ticks) {
+            while (eventTick == world.tickCount()) {
+                apply(world);
+                eventTick = pos < events.length ? eventTick + varint() : Long.MAX_VALUE;
+            }
+            world.tick();
+        }
+        return world;
+    }
+
+    // ein Event ab pos (nach dem Tick-Abstand) auf die GameWorld anwenden
+    private void apply(GameWorld w) {
+        int op = events[pos++];
+        switch (op) {
+            case RESIZE: { int x = unzigzag(varint()); w.resize(x, unzigzag(varint())); break; }
+            case MOUSE: { int x = unzigzag(varint()); w.setMouse(x, unzigzag(varint())); break; }
+            case MOVE: {
+                int m = events[pos++];
+                w.setMovement((m & 1) != 0, (m & 2) != 0, (m & 4) != 0, (m & 8) != 0);
+                break;
+            }
+            case PRESS: w.pressMouse(); break;
+            case RELEASE: w.releaseMouse(); break;
+            case BUY_TOWERS: w.buyTowers(); break;
+            case SHIELD: w.toggleShield(); break;
+            case FRIENDLY_FIRE: w.toggleFriendlyFire(); break;
+            case CONFIRM: w.confirm(); break;
+            case CANCEL: w.cancel(); break;
+            case RESUME: w.resume(); break;
+            case RESTART: w.restart(); break;
+            default: throw new IllegalStateException("bad replay opcode " + op + " at " + (pos - 1));
+        }
+    }
+
+    // --- Varint (7 Bit pro Byte), Koordinaten zigzag ---
+    private long varint() {
+        long v = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = events[pos++];
+            v |= (long) (b & 0x7f) << shift;
+            if (b >= 0) return v;
+        }
+    }
+
+    private static int unzigzag(long v) { return (int) ((v >>> 1) ^ -(v & 1)); }
+
+    /**
+     * Recorder - hängt an einer GameWorld (startRecording) und schreibt jede Eingabe mit Tick-Nummer in einen
+     * wachsenden Puffer; finish() schreibt die Datei. Nur der Thread, der tick() aufruft, benutzt ihn.
+     */
+    static final class Recorder {
+        private final int simHz;
+        private final long seed;
+        private final GameWorld.Config config;
+        private final int screenW, screenH, stress, stressEnemies, stressBullets;
+        private byte[] buf = new byte[4096];
+        private int length;
+        private long lastTick;
+
+        Recorder(int simHz, long seed, GameWorld.Config config, int screenW, int screenH, int stress, int stressEnemies, int stressBullets) {
+            this.simHz = simHz;
+            this.seed = seed;
+            this.config = config;
+            this.screenW = screenW;
+            this.screenH = screenH;
+            this.stress = stress;
+            this.stressEnemies = stressEnemies;
+            this.stressBullets = stressBullets;
+        }
+
+        void event(long tick, int op) {
+            writeVarint(tick - lastTick);
+            lastTick = tick;
+            ensure(1);
+            buf[length++] = (byte) op;
+        }
+
+        void event(long tick, int op, int a, int b) {
+            event(tick, op);
+            writeVarint(zigzag(a));
+            writeVarint(zigzag(b));
+        }
+
+        void move(long tick, boolean up, boolean down, boolean left, boolean right) {
+            event(tick, MOVE);
+            ensure(1);
+            buf[length++] = (byte) ((up ? 1 : 0) | (down ? 2 : 0) | (left ? 4 : 0) | (right ? 8 : 0));
+        }
+
+        int size() { return length; }
+
+        /** Schreibt Kopf, Events und Abschluss (Tick-Zahl + Zustands-Hash) nach file. */
+        void finish(Path file, long ticks, long hash) throws IOException {
+            try (OutputStream os = Files.newOutputStream(file)) {
+                DataOutputStream out = new DataOutputStream(new java.io.BufferedOutputStream(os));
+                out.writeInt(MAGIC);
+                out.writeByte(VERSION);
+                out.writeInt(simHz);
+                out.writeLong(seed);
+                out.writeInt(config.maxActiveEnemies);
+                out.writeInt(config.firstWaveEnemies);
+                out.writeInt(config.waveRamp);
+                out.writeInt(config.towerRange);
+                out.writeByte(config.towerTargeting.ordinal());
+                out.writeInt(config.upgradeStep);
+                out.writeDouble(config.upgradeScale);
+                out.writeInt(config.worldW);
+                out.writeInt(config.worldH);
+                out.writeInt(config.mapWalls);
+                out.writeUTF(config.map != null ? config.map : "");
+                out.writeInt(screenW);
+                out.writeInt(screenH);
+                out.writeByte(stress);
+                out.writeInt(stressEnemies);
+                out.writeInt(stressBullets);
+                out.writeInt(length);
+                out.write(buf, 0, length);
+                out.writeLong(ticks);
+                out.writeLong(hash);
+                out.flush();
+            }
+        }
+
+        private static long zigzag(long v) { return (v << 1) ^ (v >> 63); }
+
+        private void writeVarint(long v) {
+            ensure(10);
+            while ((v & ~0x7fL) != 0) {
+                buf[length++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            buf[length++] = (byte) v;
+        }
+
+        private void ensure(int n) {
+            if (length + n > buf.length) buf = Arrays.copyOf(buf, Math.max(buf.length * 2, length + n));
+        }
+    }
+}
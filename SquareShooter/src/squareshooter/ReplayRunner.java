@@ -0,0 +1,55 @@
+package squareshooter;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * ReplayRunner - spielt aufgenommene Sessions (*.sqr) headless so schnell wie möglich ab und prüft, ob die
+ * Simulation bit-genau dasselbe Ergebnis liefert (Zustands-Hash am Ende). Für Regressionstests von Performance
+ * und Balancing gegen einen Korpus echter Sessions.
+ *
+ * Aufruf: java squareshooter.ReplayRunner [--repeat 3] datei.sqr|verzeichnis ...
+ * Ausgabe pro Replay: Ergebnis, ok/MISMATCH, Ticks/s (bestes von --repeat Läufen); Exit-Code 1 bei Abweichung.
+ */
+final class ReplayRunner {
+
+    public static void main(String[] args) throws IOException {
+        int repeat = 1;
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--repeat")) { repeat = Integer.parseInt(args[++i]); continue; }
+            Path p = Paths.get(args[i]);
+            if (Files.isDirectory(p)) {
+                try (Stream<Path> s = Files.list(p)) { s.filter(f -> f.toString().endsWith(".sqr")).sorted().forEach(files::add); }
+            } else files.add(p);
+        }
+        if (files.isEmpty()) throw new IllegalArgumentException("usage: ReplayRunner [--repeat n] file.sqr|dir ...");
+
+        int mismatches = 0;
+        long totalTicks = 0, totalNanos = 0;
+        for (Path file : files) {
+            Replay replay = Replay.read(file);
+            GameWorld world = null;
+            long best = Long.MAX_VALUE;
+            for (int r = 0; r < repeat; r++) {
+                long start = System.nanoTime();
+                world = replay.play();
+                best = Math.min(best, System.nanoTime() - start);
+            }
+            boolean ok = world.stateHash() == replay.hash;
+            if (!ok) mismatches++;
+            totalTicks += replay.ticks;
+            totalNanos += best;
+            System.out.printf("%s: wave %d, score %d, damage %d, %d ticks, %s, %.0f ticks/s%n", file.getFileName(), world.wave(),
+                    world.score(), world.totalDamageTaken(), world.tickCount(), ok ? "ok" : "MISMATCH", replay.ticks / (best / 1e9));
+        }
+        System.out.printf("%d replays, %d ticks in %.2f s -> %.0f ticks/s, %d mismatches%n",
+                files.size(), totalTicks, totalNanos / 1e9, totalTicks / (totalNanos / 1e9), mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+}
@@ -0,0 +1,99 @@
+package squareshooter;
+
+/**
+ * SpatialGrid - uniformes Grid als Broad-Phase für Kollisionen.
+ *
+ * Wird jeden Tick neu aufgebaut (reset + insert), danach per Punkt- oder Rechteck-Query abgefragt.
+ * Einträge sind int-IDs (z.B. Index in der enemies-Liste), der exakte Test bleibt beim Aufrufer.
+ * Alles liegt in int-Arrays (verkettete Liste pro Zelle), nach dem Aufwärmen keine Allokation mehr.
+ * Koordinaten außerhalb des Bereichs werden auf die Randzellen geklemmt, es geht also nichts verloren.
+ */
+final class SpatialGrid {
+    private final int cellSize;
+    private int originX, originY, cols = 1, rows = 1;
+
+    private int[] head = new int[1];      // erster Eintrag pro Zelle (-1 = leer)
+    private int[] next = new int[256];    // nächster Eintrag in derselben Zelle
+    private int[] item = new int[256];    // ID pro Eintrag
+    private int entries = 0;
+
+    // Dedup für Rechteck-Queries (ein Objekt kann in mehreren Zellen liegen)
+    private int[] mark = new int[256];
+    private int stamp = 0;
+
+    private int[] result = new int[256];
+
+    SpatialGrid(int cellSize) { this.cellSize = cellSize; }
+
+    /** Leert das Grid und legt den abgedeckten Bereich fest. */
+    void reset(int minX, int minY, int maxX, int maxY) {
+        originX = minX; originY = minY;
+        cols = Math.max(1, (maxX - minX) / cellSize + 1);
+        rows = Math.max(1, (maxY - minY) / cellSize + 1);
+        int cells = cols * rows;
+        if (head.length < cells) head = new int[cells];
+        java.util.Arrays.fill(head, 0, cells, -1);
+        entries = 0;
+    }
+
+    /** Fügt die ID für das halboffene Rechteck [minX, maxX) x [minY, maxY) ein. */
+    void insert(int id, int minX, int minY, int maxX, int maxY) {
+        int c0 = col(minX), c1 = col(maxX - 1), r0 = row(minY), r1 = row(maxY - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (entries == item.length) grow();
+                int cell = r * cols + c;
+                item[entries] = id;
+                next[entries] = head[cell];
+                head[cell] = entries++;
+            }
+        }
+        if (id >= mark.length) mark = java.util.Arrays.copyOf(mark, Math.max(id + 1, mark.length * 2));
+    }
+
+    /** Kandidaten, deren Zelle den Punkt enthält. IDs stehen danach in {@link #result()}. */
+    int queryPoint(int px, int py) {
+        int n = 0;
+        for (int e = head[row(py) * cols + col(px)]; e != -1; e = next[e]) {
+            if (n == result.length) result = java.util.Arrays.copyOf(result, n * 2);
+            result[n++] = item[e];
+        }
+        return n;
+    }
+
+    /** Kandidaten, die das halboffene Rechteck berühren könnten (ohne Duplikate). */
+    int queryRect(int minX, int minY, int maxX, int maxY) {
+        if (++stamp == 0) { java.util.Arrays.fill(mark, 0); stamp = 1; }
+        int n = 0;
+        int c0 = col(minX), c1 = col(maxX - 1), r0 = row(minY), r1 = row(maxY - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int e = head[r * cols + c]; e != -1; e = next[e]) {
+                    int id = item[e];
+                    if (mark[id] == stamp) continue;
+                    mark[id] = stamp;
+                    if (n == result.length) result = java.util.Arrays.copyOf(result, n * 2);
+                    result[n++] = id;
+                }
+            }
+        }
+        return n;
+    }
+
+    /** Kandidaten entlang der Strecke (x0, y0) -> (x1, y1): alle Zellen ihrer Bounding-Box, exakter Test beim Aufrufer. */
+    int querySegment(double x0, double y0, double x1, double y1) {
+        return queryRect((int) Math.floor(Math.min(x0, x1)), (int) Math.floor(Math.min(y0, y1)),
+                (int) Math.floor(Math.max(x0, x1)) + 1, (int) Math.floor(Math.max(y0, y1)) + 1);
+    }
+
+    /** Ergebnis der letzten Query (wird bei der nächsten Query überschrieben). */
+    int[] result() { return result; }
+
+    private int col(int x) { return Math.max(0, Math.min(cols - 1, Math.floorDiv(x - originX, cellSize))); }
+    private int row(int y) { return Math.max(0, Math.min(rows - 1, Math.floorDiv(y - originY, cellSize))); }
+
+    private void grow() {
+        item = java.util.Arrays.copyOf(item, item.length * 2);
+        next = java.util.Arrays.copyOf(next, next.length * 2);
+    }
+}
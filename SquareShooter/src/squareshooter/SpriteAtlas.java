@@ -0,0 +1,173 @@
+package squareshooter;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Polygon;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * SpriteAtlas - Enemies (pro Typ, inkl. HP-Balken-Rahmen), Health Pack, Tower-Level und Schwert-Drehstufen
+ * einmal vorgerendert in ein gemeinsames Bild; pro Objekt und Frame bleibt ein drawImage ohne Allokation.
+ *
+ * Mit GraphicsConfiguration ein kompatibles (managed, von Java2D im VRAM gecachtes) Bild,
+ * sonst (headless, Benchmarks) INT_ARGB_PRE. Was nicht im Atlas liegt (andere Größe, Tower-Level > TOWER_LEVELS),
+ * zeichnen die draw-Methoden nicht - dann gibt es false und der Aufrufer nimmt die paint-Methoden (Vektor).
+ */
+final class SpriteAtlas {
+    static final int SWORD_BUCKETS = 64;  // 5.6° pro Stufe
+    static final int TOWER_LEVELS = 9;
+    static final int[] ENEMY_SIZES = {18, 20, 24}; // wie GameWorld.Enemy je Typ
+    static final int HEALTH_PACK_SIZE = 20;
+
+    // --- Farben/Strokes einmal, statt pro Objekt und Frame ---
+    private static final Color ENEMY_TRI = new Color(255, 60, 60, 140), ENEMY_CIRCLE = new Color(255, 0, 255, 140),
+            ENEMY_CIRCLE_EDGE = new Color(255, 0, 255), ENEMY_SQUARE = new Color(255, 150, 0, 140),
+            ENEMY_SQUARE_EDGE = new Color(255, 180, 0), PACK_FILL = new Color(0, 255, 100, 150),
+            PACK_EDGE = new Color(255, 50, 50), TOWER_FILL = new Color(255, 255, 0, 190), SWORD = new Color(0, 255, 255, 150);
+    private static final BasicStroke THICK = new BasicStroke(2.5f), THIN = new BasicStroke(1f);
+    private static final int PAD = 3; // Stroke-Überstand + Antialiasing-Rand
+
+    // --- Zellen: Index -> Position im Atlas, Größe, Anker (Weltposition innerhalb der Zelle) ---
+    private static final int ENEMY = 0, HEALTH_PACK = ENEMY + ENEMY_SIZES.length, TOWER = HEALTH_PACK + 1,
+            SWORD_CELL = TOWER + TOWER_LEVELS, CELLS = SWORD_CELL + SWORD_BUCKETS;
+    private final int[] cellX = new int[CELLS], cellY = new int[CELLS], cellW = new int[CELLS], cellH = new int[CELLS];
+    private final int[] anchorX = new int[CELLS], anchorY = new int[CELLS];
+    private final BufferedImage sheet;
+
+    SpriteAtlas(GraphicsConfiguration gc, java.awt.Font font) {
+        for (int t = 0; t < ENEMY_SIZES.length; t++) {
+            int size = ENEMY_SIZES[t];
+            cell(ENEMY + t, 2 * (size + PAD), 2 * size + 10 + PAD, size + PAD, size + 10); // HP-Balken 10 px über dem Körper
+        }
+        cell(HEALTH_PACK, 2 * (HEALTH_PACK_SIZE + PAD), 2 * (HEALTH_PACK_SIZE + PAD), HEALTH_PACK_SIZE + PAD, HEALTH_PACK_SIZE + PAD);
+        for (int l = 0; l < TOWER_LEVELS; l++) cell(TOWER + l, 32, 32, 16, 16);
+        for (int b = 0; b < SWORD_BUCKETS; b++) cell(SWORD_CELL + b, 56, 56, 28, 28); // Klinge bis 25 px vom Drehpunkt
+
+        // Zeilen-Packing: Zellen der Reihe nach, neue Zeile wenn die Breite voll ist
+        int sheetW = 512, x = 0, y = 0, rowH = 0;
+        for (int i = 0; i < CELLS; i++) {
+            if (x + cellW[i] > sheetW) { x = 0; y += rowH; rowH = 0; }
+            cellX[i] = x; cellY[i] = y;
+            x += cellW[i];
+            rowH = Math.max(rowH, cellH[i]);
+        }
+        int sheetH = y + rowH;
+        sheet = gc != null ? gc.createCompatibleImage(sheetW, sheetH, Transparency.TRANSLUCENT)
+                           : new BufferedImage(sheetW, sheetH, BufferedImage.TYPE_INT_ARGB_PRE);
+
+        Graphics2D g = sheet.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setFont(font);
+        for (int t = 0; t < ENEMY_SIZES.length; t++) paintEnemy(g, at(ENEMY + t, true), at(ENEMY + t, false), ENEMY_SIZES[t], t);
+        paintHealthPack(g, at(HEALTH_PACK, true), at(HEALTH_PACK, false), HEALTH_PACK_SIZE);
+        for (int l = 0; l < TOWER_LEVELS; l++) paintTower(g, at(TOWER + l, true), at(TOWER + l, false), l + 1);
+        for (int b = 0; b < SWORD_BUCKETS; b++)
+            paintSword(g, at(SWORD_CELL + b, true), at(SWORD_CELL + b, false), b * 2 * Math.PI / SWORD_BUCKETS);
+        g.dispose();
+    }
+
+    private void cell(int i, int w, int h, int ax, int ay) { cellW[i] = w; cellH[i] = h; anchorX[i] = ax; anchorY[i] = ay; }
+    private int at(int i, boolean x) { return x ? cellX[i] + anchorX[i] : cellY[i] + anchorY[i]; }
+
+    private void blit(Graphics2D g2, int i, int x, int y) {
+        int dx = x - anchorX[i], dy = y - anchorY[i], sx = cellX[i], sy = cellY[i];
+        g2.drawImage(sheet, dx, dy, dx + cellW[i], dy + cellH[i], sx, sy, sx + cellW[i], sy + cellH[i], null);
+    }
+
+    // --- Blits: false = nicht im Atlas, Aufrufer zeichnet per paint* ---
+    boolean drawEnemy(Graphics2D g2, int x, int y, int size, int type) {
+        if (type < 0 || type >= ENEMY_SIZES.length || ENEMY_SIZES[type] != size) return false;
+        blit(g2, ENEMY + type, x, y);
+        return true;
+    }
+
+    boolean drawHealthPack(Graphics2D g2, int x, int y, int size) {
+        if (size != HEALTH_PACK_SIZE) return false;
+        blit(g2, HEALTH_PACK, x, y);
+        return true;
+    }
+
+    boolean drawTower(Graphics2D g2, int x, int y, int level) {
+        if (level < 1 || level > TOWER_LEVELS) return false;
+        blit(g2, TOWER + level - 1, x, y);
+        return true;
+    }
+
+    /** rotation = Drehung der Klinge (0 = Spitze nach oben), gerundet auf die nächste Stufe. */
+    void drawSword(Graphics2D g2, int x, int y, double rotation) {
+        int b = Math.floorMod(Math.round(rotation * SWORD_BUCKETS / (2 * Math.PI)), SWORD_BUCKETS);
+        blit(g2, SWORD_CELL + b, x, y);
+    }
+
+    // --- Vektor-Zeichnen: Vorlage für den Atlas und Fallback ---
+    static void paintEnemy(Graphics2D g2, int x, int y, int size, int type) {
+        int barW = size * 2;
+        g2.setColor(Color.DARK_GRAY); g2.fillRect(x - size, y - size - 10, barW, 6);
+        g2.setColor(Color.RED); g2.drawRect(x - size, y - size - 10, barW, 6);
+        if (type == 0) {
+            Polygon tri = new Polygon();
+            tri.addPoint(x, y - size);
+            tri.addPoint(x - size, y + size);
+            tri.addPoint(x + size, y + size);
+            g2.setColor(ENEMY_TRI);
+            g2.fillPolygon(tri);
+            g2.setColor(Color.RED);
+            g2.drawPolygon(tri);
+        } else if (type == 1) {
+            g2.setColor(ENEMY_CIRCLE);
+            g2.fillOval(x - size, y - size, size * 2, size * 2);
+            g2.setColor(ENEMY_CIRCLE_EDGE);
+            g2.setStroke(THICK);
+            g2.drawOval(x - size, y - size, size * 2, size * 2);
+            g2.setStroke(THIN);
+        } else {
+            g2.setColor(ENEMY_SQUARE);
+            g2.fillRect(x - size, y - size, size * 2, size * 2);
+            g2.setColor(ENEMY_SQUARE_EDGE);
+            g2.setStroke(THICK);
+            g2.drawRect(x - size, y - size, size * 2, size * 2);
+            g2.setStroke(THIN);
+        }
+    }
+
+    static void paintHealthPack(Graphics2D g2, int x, int y, int size) {
+        Polygon hex = new Polygon();
+        for (int i = 0; i < 6; i++) {
+            double angle = Math.toRadians(60 * i);
+            hex.addPoint(x + (int) (Math.cos(angle) * size), y + (int) (Math.sin(angle) * size));
+        }
+        g2.setColor(PACK_FILL);
+        g2.fillPolygon(hex);
+        g2.setColor(PACK_EDGE);
+        g2.setStroke(THICK);
+        g2.drawPolygon(hex);
+        g2.setStroke(THIN);
+    }
+
+    static void paintTower(Graphics2D g2, int x, int y, int level) {
+        g2.setColor(TOWER_FILL);
+        g2.fillRect(x - 15, y - 15, 30, 30);
+        g2.setColor(Color.BLACK);
+        g2.drawRect(x - 15, y - 15, 30, 30);
+        g2.drawString("L" + level, x - 12, y + 4);
+    }
+
+    static void paintSword(Graphics2D g2, int x, int y, double rotation) {
+        Graphics2D g = (Graphics2D) g2.create();
+        g.translate(x, y);
+        g.rotate(rotation);
+        g.setColor(SWORD);
+        g.fillRect(-5, -15, 10, 30); // blade
+        g.fillRect(-2, 15, 4, 10);   // handle
+        Polygon tri = new Polygon(); // tip
+        tri.addPoint(0, -20);
+        tri.addPoint(-5, -15);
+        tri.addPoint(5, -15);
+        g.fillPolygon(tri);
+        g.dispose();
+    }
+}
@@ -0,0 +1,743 @@
+package squareshooter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.awt.image.BufferStrategy;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SquareShooterExperimental - komplette Version mit:
+ * - dynamischer Fenstergröße (Map passt sich an)
+ * - Towers (kaufen mit Score, platzieren, automatisches Schießen)
+ * - Shield-Saw (30s aktiv, 5min cooldown) blockt Bullets + leichtes Schaden an Gegnern
+ * - Wandtypen: STOP, SLOW, THROUGH, DESTRUCTIBLE (mit HP)
+ * - Friendly-Fire toggle (Taste F) -> Gegnerschüsse können Gegner verletzen (optional)
+ * - Spawn-Limits (maxActiveEnemies) und maxTotalEnemies per Wave
+ * - Wave-System: wenn Wave cleared -> Bonus + Press SPACE for next wave
+ * - Besseres HUD, Title Screen, Game Over + Restart (SPACE)
+ * - Gameplay: Platziermodus friert Spiel-Update (außer Rendering & Maus)
+ *
+ * Steuerung:
+ * WASD - bewegen
+ * Maus - zielen
+ * Linke Maustaste - feuern / Turm platzieren wenn im Place-Modus
+ * 1 - Tower kaufen (je 100 Score) - platziermodus; ESC cancel + refund remainder
+ * 2 - Shield-Saw toggle (aktiviert, 30s, 300s cooldown)
+ * F - Friendly fire toggle (Gegnerkugeln können Gegner verletzen)
+ * SPACE - Start / Restart / Next Wave
+ * ESC - cancel placing
+ *
+ * Start mit --stress misst die Bullet-vs-Enemy-Kollision (Grid), --stress --brute die alte Variante.
+ * Simulation und Rendering laufen getrennt: -Dsim.hz=60 (Ticks/s, fester Zeitschritt; Geschwindigkeiten werden auf
+ * 60 Hz umgerechnet, Kontakt- und Orbital-Schaden bleiben pro Tick), -Dfps=60 (Repaints/s),
+ * -Dtime.scale=2 lässt die Simulation doppelt so schnell ticken (Zeitlupe < 1).
+ * -Dworld=40000x40000 spielt in einer Welt größer als das Fenster (Kamera folgt dem Spieler, nur Chunks um die Kamera
+ * werden simuliert und gezeichnet), -Dmap.walls=100000 verteilt zufällige Walls darüber. -Dmap=big.sqm lädt eine
+ * Binärkarte (MapFile: Weltgröße, Walls, Spawn-Zonen; Text-Karten vorher mit MapFile convert umwandeln).
+ * -Dreplay.out=session.sqr nimmt alle Eingaben auf (beim Beenden geschrieben), abspielen mit ReplayRunner.
+ * -Drender=active zeichnet statt über repaint() aktiv in einen Canvas mit BufferStrategy (-Dbuffers=2|3,
+ * -Dfps=0 ungebremst, -Dvsync=true Page-Flipping wenn verfügbar); -Dframe.stats=5 druckt alle 5 s Frame-Zeit-Perzentile.
+ * F3 blendet das Profiling-Overlay ein (Phasenzeiten, Render-Zeit, Allokation, GC, Entity-Zahlen, je 1 s zusammengefasst),
+ * -Dmetrics.out=metrics.csv schreibt dieselben Metriken fortlaufend als CSV.
+ * Der Spielzustand liegt in GameWorld (ohne AWT), dieses Panel übersetzt nur Eingaben und zeichnet Snapshots.
+ * Ohne Fenster: java squareshooter.HeadlessRunner --games 10 (Bot spielt, Ausgabe Ticks/s).
+ */
+public class SquareShooterExperimental extends JPanel implements KeyListener, MouseMotionListener, MouseListener {
+    // --- initial preferred size (window is resizable) ---
+    private final int prefWidth = 1000, prefHeight = 800;
+
+    // --- Spielzustand + Simulation (ohne AWT), das Panel ist nur noch Fenster, Eingabe und Rendering ---
+    private final GameWorld world;
+    private boolean up, down, left, right; // nur Simulations-Thread
+    private volatile boolean simulating = true; // false = Simulations-Thread beendet sich (Shutdown, Replay schreiben)
+    private boolean quit = false; // Pause-Menü "Quit": nach dem Replay-Schreiben beenden (nur Simulations-Thread)
+    private Replay.Recorder recorder;
+    private String replayOut;
+    private volatile int mouseX = prefWidth / 2, mouseY = prefHeight / 2; // EDT schreibt, Simulation liest
+
+    // --- Simulation (eigener Thread, fester Zeitschritt) / Rendering (Swing-Repaint) ---
+    // Bewegung ist pro Tick definiert (Referenz 60 Hz), die früheren Timer laufen als Tick-Zähler in GameWorld.
+    private final int fps = Integer.getInteger("fps", 60);        // -Dfps=...     Repaints/s
+    private final long stepNanos;
+
+    // Simulation -> Renderer nur über Snapshots, EDT -> Simulation nur über die Input-Queue
+    private final WorldSnapshot.Exchange snapshots = new WorldSnapshot.Exchange();
+    private final ConcurrentLinkedQueue<InputEvent> inputQueue = new ConcurrentLinkedQueue<>();
+    private boolean pauseListeners = false; // nur EDT
+    private static final GameWorld.Wall.Type[] WALL_TYPES = GameWorld.Wall.Type.values();
+
+    // --- gecachte Render-Ebenen (nur EDT): Walls, HUD-Rahmen, HUD-Text ---
+    private static final int HUD_W = 300, HUD_H = 275;
+    private final CachedLayer wallLayer = new CachedLayer(), hudChrome = new CachedLayer(), hudText = new CachedLayer();
+    private int wallLayerVersion = -1;
+    private final int[] hudKey = new int[12], hudNow = new int[12];
+    private SpriteAtlas sprites; // beim ersten Frame angelegt (braucht GraphicsConfiguration + Font)
+
+    // --- Ausgabe: dieses Panel (Swing, repaint) oder ein Canvas mit BufferStrategy (aktives Rendering) ---
+    // "nur EDT" oben heißt im aktiven Modus: nur Render-Thread
+    private Component surface = this;
+    private final Histogram frameTimes = new Histogram(); // Abstand zwischen Frames
+    private final long statsNanos = Long.getLong("frame.stats", 0) * 1_000_000_000L; // -Dframe.stats=s, 0 = aus
+    private long lastFrame, statsStart;
+
+    // --- Metriken des Renderers (nur EDT bzw. Render-Thread), Simulations-Metriken kommen über den Snapshot ---
+    private static final long METRICS_INTERVAL = 1_000_000_000L;
+    private static final int R_FRAME = 0, R_RENDER = 1, R_GC = 2, R_ALLOC = 3;
+    private static final String[] RENDER_METRICS = {"frame", "render", "gc_pause", "alloc_bytes"};
+    private Metrics renderMetrics = new Metrics("render", METRICS_INTERVAL, null, RENDER_METRICS);
+    private long gcCount = Metrics.gcCount(), gcMillis = Metrics.gcMillis();
+    private volatile boolean overlay = false; // F3, direkt auf dem EDT umgeschaltet
+    private String[] overlayLines = new String[0];
+    private int overlaySim = -1, overlayRender = -1;
+
+    public SquareShooterExperimental() { this(false, false); }
+
+    public SquareShooterExperimental(boolean stress, boolean brute) {
+        this(newWorld());
+        if (stress) world.enableStress(brute);
+        Metrics.Export export = Metrics.Export.open(System.getProperty("metrics.out")); // -Dmetrics.out=...
+        world.enableMetrics(new Metrics("sim", METRICS_INTERVAL, export, GameWorld.METRICS));
+        renderMetrics = new Metrics("render", METRICS_INTERVAL, export, RENDER_METRICS);
+        if (export != null) Runtime.getRuntime().addShutdownHook(new Thread(export::close));
+        replayOut = System.getProperty("replay.out"); // -Dreplay.out=...
+        if (replayOut != null) recorder = world.startRecording();
+        publishSnapshot();
+
+        boolean active = "active".equals(System.getProperty("render")); // -Drender=active|swing
+        JFrame frame = new JFrame("Square Shooter — Experimental");
+        Canvas canvas = null;
+        if (active) {
+            // Canvas bekommt Maus + Tastatur direkt (Canvas-Koordinaten, auch fürs Pause-Menü)
+            canvas = new Canvas();
+            canvas.setPreferredSize(getPreferredSize());
+            canvas.setBackground(getBackground());
+            canvas.setIgnoreRepaint(true);
+            canvas.addKeyListener(this);
+            canvas.addMouseMotionListener(this);
+            canvas.addMouseListener(this);
+            frame.setIgnoreRepaint(true);
+            frame.add(canvas);
+            surface = canvas;
+        } else {
+            frame.add(this);
+        }
+        frame.pack();
+        frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        frame.addKeyListener(this);
+        frame.addMouseMotionListener(this);
+        frame.addMouseListener(this);
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+
+        // Game loop: Simulation im eigenen Thread, gezeichnet wird per Swing-Timer (repaint) oder im Render-Thread
+        Thread sim = new Thread(this::runSimulation, "simulation");
+        sim.setDaemon(true);
+        sim.start();
+        if (recorder != null) Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            simulating = false; // Simulation hält nach dem laufenden Tick an und schreibt das Replay
+            try { sim.join(2000); } catch (InterruptedException ignored) {}
+        }));
+        if (active) {
+            canvas.requestFocus();
+            boolean vsync = Boolean.getBoolean("vsync");
+            BufferStrategy bs = createBufferStrategy(canvas, Integer.getInteger("buffers", 2), vsync);
+            // mit Page-Flipping taktet show() selbst, sonst die Frame-Grenze (fps <= 0 = ungebremst)
+            long frameNanos = vsync && bs.getCapabilities().isPageFlipping() || fps <= 0 ? 0 : 1_000_000_000L / fps;
+            Thread render = new Thread(() -> runActiveRendering(bs, frameNanos), "render");
+            render.setDaemon(true);
+            render.start();
+        } else {
+            new javax.swing.Timer(Math.max(1, 1000 / Math.max(1, fps)), e -> repaint()).start();
+        }
+    }
+
+    // vsync: Page-Flipping anfragen (show() wartet dann auf den Bildwechsel), sonst normale Strategy mit Blit
+    private static BufferStrategy createBufferStrategy(Canvas canvas, int buffers, boolean vsync) {
+        if (vsync) {
+            try {
+                canvas.createBufferStrategy(buffers, new BufferCapabilities(new ImageCapabilities(true), new ImageCapabilities(true),
+                        BufferCapabilities.FlipContents.UNDEFINED));
+                return canvas.getBufferStrategy();
+            } catch (AWTException e) {
+                System.err.println("vsync: page flipping not available (" + e.getMessage() + "), using frame cap");
+            }
+        }
+        canvas.createBufferStrategy(buffers);
+        return canvas.getBufferStrategy();
+    }
+
+    // aktives Rendering: zeichnen, show(), dann bis zum nächsten Frame-Termin warten (frameNanos = 0: sofort weiter)
+    private void runActiveRendering(BufferStrategy bs, long frameNanos) {
+        long next = System.nanoTime();
+        while (true) {
+            do {
+                do {
+                    Graphics2D g = (Graphics2D) bs.getDrawGraphics();
+                    g.setColor(getBackground());
+                    g.fillRect(0, 0, surface.getWidth(), surface.getHeight());
+                    g.setFont(getFont());
+                    WorldSnapshot s = snapshots.latest();
+                    renderMeasured(g, s);
+                    g.dispose();
+                } while (bs.contentsRestored());
+                bs.show();
+            } while (bs.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+            long now = System.nanoTime();
+            recordFrame(now);
+            if (frameNanos > 0) {
+                next = Math.max(next + frameNanos, now);
+                java.util.concurrent.locks.LockSupport.parkNanos(next - now);
+            }
+        }
+    }
+
+    // Frame-Zeit = Abstand zum vorigen Frame; mit -Dframe.stats alle n Sekunden Perzentile ausgeben und zurücksetzen.
+    // GC: hat seit dem letzten Frame ein Lauf stattgefunden, geht dessen Zeit als gc_pause ein
+    private void recordFrame(long now) {
+        if (lastFrame != 0) { frameTimes.record(now - lastFrame); renderMetrics.record(R_FRAME, now - lastFrame); }
+        else statsStart = now;
+        long gcs = Metrics.gcCount();
+        if (gcs != gcCount) {
+            long ms = Metrics.gcMillis();
+            renderMetrics.record(R_GC, (ms - gcMillis) * 1_000_000);
+            gcCount = gcs;
+            gcMillis = ms;
+        }
+        renderMetrics.roll(now);
+        lastFrame = now;
+        if (statsNanos > 0 && now - statsStart >= statsNanos) {
+            System.out.println("[" + (surface == this ? "swing" : "active") + "] frame " + frameTimes.summary());
+            frameTimes.reset();
+            statsStart = now;
+        }
+    }
+
+    Histogram frameTimes() { return frameTimes; }
+
+    private static GameWorld newWorld() {
+        GameWorld.Config config = new GameWorld.Config();
+        String size = System.getProperty("world"); // -Dworld=40000x40000 große Welt mit Kamera, -Dmap.walls=100000
+        if (size != null) {
+            int x = size.indexOf('x');
+            config.worldW = Integer.parseInt(size.substring(0, x));
+            config.worldH = Integer.parseInt(size.substring(x + 1));
+        }
+        config.mapWalls = Integer.getInteger("map.walls", 0);
+        config.map = System.getProperty("map"); // -Dmap=maps/big.sqm Binärkarte (MapFile), Größe aus der Karte
+        GameWorld world = new GameWorld(Integer.getInteger("sim.hz", 60), config, new SplittableRandom().nextLong()); // -Dsim.hz=... Simulationsschritte/s
+        world.clock().setTimeScale(Double.parseDouble(System.getProperty("time.scale", "1")));
+        return world;
+    }
+
+    // ohne Fenster, Threads und Timer (Benchmarks): world.tick(), publishSnapshot() und paintComponent() direkt aufrufen
+    SquareShooterExperimental(GameWorld world) {
+        this.world = world;
+        stepNanos = world.clock().realNanosPerTick(); // Echtzeit pro Tick, mit timeScale
+        setPreferredSize(new Dimension(prefWidth, prefHeight));
+        setBackground(Color.BLACK);
+        world.resize(prefWidth, prefHeight);
+        publishSnapshot();
+    }
+
+    // Fixed-timestep Akkumulator: so viele Ticks wie Echtzeit vergangen ist, unabhängig von Paint-Kosten
+    private void runSimulation() {
+        long prev = System.nanoTime(), acc = 0;
+        while (simulating) {
+            long now = System.nanoTime();
+            acc += Math.min(now - prev, 250_000_000L); // nach Hängern nicht endlos nachholen
+            prev = now;
+            boolean ticked = false;
+            while (acc >= stepNanos) {
+                processInput();
+                world.tick();
+                acc -= stepNanos;
+                ticked = true;
+            }
+            if (ticked) publishSnapshot();
+            java.util.concurrent.locks.LockSupport.parkNanos(stepNanos - acc);
+        }
+        if (recorder != null) saveReplay();
+        // System.exit nicht hier: der Shutdown-Hook wartet per join auf genau diesen Thread
+        if (quit) SwingUtilities.invokeLater(() -> System.exit(0));
+    }
+
+    private void saveReplay() {
+        try {
+            recorder.finish(java.nio.file.Paths.get(replayOut), world.tickCount(), world.stateHash());
+            System.out.println("replay: " + world.tickCount() + " ticks, " + recorder.size() + " bytes of input -> " + replayOut);
+        } catch (java.io.IOException e) {
+            System.err.println("replay: cannot write " + replayOut + " (" + e.getMessage() + ")");
+        }
+    }
+
+    // Interpolationsfaktor zwischen den letzten beiden Ticks (0 = vorheriger, 1 = aktueller)
+    private double renderAlpha(WorldSnapshot s) {
+        double a = (System.nanoTime() - s.tickNanos) / (double) stepNanos;
+        return Math.max(0, Math.min(1, a));
+    }
+
+    // Eingaben vom EDT werden am Tick-Anfang im Simulations-Thread an die GameWorld übergeben
+    private void processInput() {
+        // keep screen size in sync with window (map adapts)
+        world.resize(surface.getWidth(), surface.getHeight());
+        world.setMouse(mouseX, mouseY);
+        InputEvent ev;
+        while ((ev = inputQueue.poll()) != null) {
+            switch (ev.getID()) {
+                case KeyEvent.KEY_PRESSED: handleKey((KeyEvent) ev); break;
+                case KeyEvent.KEY_RELEASED: handleKeyRelease((KeyEvent) ev); break;
+                case MouseEvent.MOUSE_PRESSED: handleMousePress((MouseEvent) ev); break;
+                case MouseEvent.MOUSE_RELEASED: world.releaseMouse(); break;
+            }
+        }
+        world.setMovement(up, down, left, right);
+    }
+
+    // kopiert den Zustand nach dem Tick in den freien Snapshot-Puffer und veröffentlicht ihn
+    void publishSnapshot() {
+        WorldSnapshot s = snapshots.back();
+        s.tickNanos = System.nanoTime();
+        world.writeSnapshot(s);
+        snapshots.publish();
+    }
+
+    private static int lerp(int from, int to, double a) { return (int) Math.round(from + (to - from) * a); }
+    private static int lerp(double from, double to, double a) { return (int) (from + (to - from) * a); }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        WorldSnapshot s = snapshots.latest();
+        // Pause-Menü: Panel-Listener liefern Panel-Koordinaten für die Buttons
+        if (s.paused != pauseListeners) {
+            if (s.paused) { addMouseMotionListener(this); addMouseListener(this); }
+            else { removeMouseMotionListener(this); removeMouseListener(this); }
+            pauseListeners = s.paused;
+        }
+        renderMeasured((Graphics2D) g, s);
+        recordFrame(System.nanoTime());
+    }
+
+    // render() mit Zeit + Allokation ins Render-Registry
+    private void renderMeasured(Graphics2D g2, WorldSnapshot s) {
+        long start = System.nanoTime(), alloc = Metrics.allocatedBytes();
+        render(g2, s, renderAlpha(s));
+        renderMetrics.record(R_ALLOC, Metrics.allocatedBytes() - alloc);
+        renderMetrics.record(R_RENDER, System.nanoTime() - start);
+    }
+
+    // zeichnet nur aus dem Snapshot - kein Zugriff auf den Simulationszustand
+    private void render(Graphics2D g2, WorldSnapshot s, double alpha) {
+        g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        int screenW = s.screenW, screenH = s.screenH;
+
+        if (s.titleScreen) {
+            g2.setColor(Color.WHITE);
+            g2.setFont(g2.getFont().deriveFont(Font.BOLD, 48f));
+            String txt = "SQUARE SHOOTER EXPERIMENTAL";
+            int tw = g2.getFontMetrics().stringWidth(txt);
+            g2.drawString(txt, screenW / 2 - tw / 2, screenH / 2 - 50);
+            g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 20f));
+            String start = "Press SPACE to Start";
+            g2.drawString(start, screenW / 2 - g2.getFontMetrics().stringWidth(start) / 2, screenH / 2 + 10);
+
+            String help = "WASD Move • Mouse Aim • LMB Fire • 1 Buy Tower • 2 Shield • F Friendly-Fire Toggle";
+            g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 14f));
+            g2.drawString(help, screenW / 2 - g2.getFontMetrics().stringWidth(help) / 2, screenH / 2 + 40);
+            return;
+        }
+
+        if (sprites == null) initSprites(surface.getGraphicsConfiguration());
+
+        // --- Welt in Welt-Koordinaten: um die (interpolierte) Kamera verschoben, HUD danach wieder in Bildschirm-Koordinaten ---
+        int camX = lerp(s.prevCamX, s.camX, alpha), camY = lerp(s.prevCamY, s.camY, alpha);
+        g2.translate(-camX, -camY);
+
+        // --- Walls (Layer über den aktiven Chunks, neu gezeichnet nur bei neuer wallVersion oder Größenänderung) ---
+        if (s.wallVersion != wallLayerVersion) { wallLayer.invalidate(); wallLayerVersion = s.wallVersion; }
+        if (wallLayer.prepare(surface.getGraphicsConfiguration(), s.wallAreaW, s.wallAreaH)) {
+            Graphics2D lg = beginLayer(wallLayer);
+            lg.translate(-s.wallAreaX, -s.wallAreaY);
+            for (int i = 0; i < s.wallCount; i++) drawWall(lg, s.wallX[i], s.wallY[i], s.wallW[i], s.wallH[i], s.wallType[i], s.wallHp[i]);
+            lg.dispose();
+        }
+        wallLayer.draw(g2, s.wallAreaX, s.wallAreaY);
+
+        // --- player ---
+        int playerSize = s.playerSize;
+        int drawX = lerp(s.prevPlayerX, s.playerX, alpha), drawY = lerp(s.prevPlayerY, s.playerY, alpha);
+        drawNeonRect(g2, drawX - playerSize / 2, drawY - playerSize / 2, playerSize, playerSize, new Color(0, 255, 255), 3);
+        if (s.showDamage) {
+            g2.setColor(Color.RED);
+            g2.drawString("-" + s.lastDamage, drawX - 10, drawY - 40);
+        }
+
+        // --- swords
+        if (s.swordCount > 0) drawSwords(g2, s.swordCount, s.prevSwordAngle + (s.swordAngle - s.prevSwordAngle) * alpha, drawX, drawY);
+
+        // --- bullets ---
+        int bulletSize = s.bulletSize;
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < s.bulletCount; i++)
+            g2.fillOval(lerp(s.bulletPrevX[i], s.bulletX[i], alpha) - bulletSize / 2, lerp(s.bulletPrevY[i], s.bulletY[i], alpha) - bulletSize / 2, bulletSize, bulletSize);
+
+        // --- enemy bullets ---
+        g2.setColor(new Color(255, 0, 255));
+        for (int i = 0; i < s.enemyBulletCount; i++)
+            g2.fillOval(lerp(s.enemyBulletPrevX[i], s.enemyBulletX[i], alpha) - 4, lerp(s.enemyBulletPrevY[i], s.enemyBulletY[i], alpha) - 4, 8, 8);
+
+        // --- enemies ---
+        drawEnemies(g2, s, alpha);
+
+        // --- health packs ---
+        for (int i = 0; i < s.healthPackCount; i++)
+            if (!sprites.drawHealthPack(g2, s.healthPackX[i], s.healthPackY[i], s.healthPackSize[i]))
+                SpriteAtlas.paintHealthPack(g2, s.healthPackX[i], s.healthPackY[i], s.healthPackSize[i]);
+
+        // --- towers ---
+        for (int i = 0; i < s.towerCount; i++)
+            if (!sprites.drawTower(g2, s.towerX[i], s.towerY[i], s.towerLevel[i])) SpriteAtlas.paintTower(g2, s.towerX[i], s.towerY[i], s.towerLevel[i]);
+
+        // --- shield ---
+        if (s.shieldActive) drawShield(g2, s.shieldX, s.shieldY, s.shieldRadius, s.shieldAngle);
+        g2.translate(camX, camY);
+
+        // --- placing preview ---
+        if (s.placingTower) {
+            g2.setColor(new Color(255, 255, 0, 120));
+            g2.fillRect(mouseX - 15, mouseY - 15, 30, 30);
+            g2.setColor(Color.WHITE);
+            g2.drawString("Click to place tower (" + s.towersToPlace + " left). Press ESC to cancel.", 10, screenH - 20);
+        }
+
+        drawHUD(g2, s);
+        if (overlay) drawOverlay(g2, s);
+
+        // Wave cleared text
+        if (s.waveCleared) {
+            g2.setColor(new Color(255, 255, 255, 220));
+            g2.setFont(g2.getFont().deriveFont(Font.BOLD, 28f));
+            int tw = g2.getFontMetrics().stringWidth(s.notifyMessage);
+            g2.drawString(s.notifyMessage, screenW / 2 - tw / 2, screenH / 2);
+        }
+
+        if (s.gameOver) {
+            g2.setColor(new Color(255, 255, 255, 200));
+            g2.setFont(g2.getFont().deriveFont(Font.BOLD, 36f));
+            String txt = "GAME OVER";
+            int tw = g2.getFontMetrics().stringWidth(txt);
+            g2.drawString(txt, screenW / 2 - tw / 2, screenH / 2);
+
+            g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 24f));
+            String restart = "Press SPACE to Restart";
+            g2.drawString(restart, screenW / 2 - g2.getFontMetrics().stringWidth(restart) / 2, screenH / 2 + 40);
+        }
+
+        // --- PAUSE MENU ---
+        if (s.paused) {
+            // dark overlay
+            g2.setColor(new Color(0, 0, 0, 160));
+            g2.fillRect(0, 0, screenW, screenH);
+
+            // menu box
+            int boxW = 360, boxH = 260;
+            int bx = screenW / 2 - boxW / 2;
+            int by = screenH / 2 - boxH / 2;
+            g2.setColor(new Color(30, 30, 30, 220));
+            g2.fillRoundRect(bx, by, boxW, boxH, 14, 14);
+            g2.setColor(Color.WHITE);
+            g2.setFont(g2.getFont().deriveFont(Font.BOLD, 28f));
+            String title = "PAUSED";
+            int tw = g2.getFontMetrics().stringWidth(title);
+            g2.drawString(title, screenW / 2 - tw / 2, by + 45);
+
+            // buttons
+            int bw = 220, bh = 40;
+            int bxBtn = screenW / 2 - bw / 2;
+            int startY = by + 80;
+            String[] labels = {"Continue", "Restart", "Quit"};
+            for (int i = 0; i < labels.length; i++) {
+                int byBtn = startY + i * 60;
+                // hover effect
+                if (rectContainsPoint(bxBtn, byBtn, bw, bh, mouseX, mouseY)) g2.setColor(new Color(200, 200, 200));
+                else g2.setColor(new Color(120, 120, 120));
+                g2.fillRoundRect(bxBtn, byBtn, bw, bh, 10, 10);
+                g2.setColor(Color.BLACK);
+                g2.setFont(g2.getFont().deriveFont(Font.PLAIN, 20f));
+                int lw = g2.getFontMetrics().stringWidth(labels[i]);
+                g2.drawString(labels[i], bxBtn + bw / 2 - lw / 2, byBtn + bh / 2 + 7);
+            }
+        }
+    }
+
+    private void drawSwords(Graphics2D g2, int swordCount, double swordAngle, int px, int py) {
+        int innerSwords = Math.min(8, swordCount);
+        int outerSwords = Math.min(16, swordCount - innerSwords);
+
+        // inner ring (first 8 swords)
+        double angleSpacing = (2 * Math.PI) / innerSwords;
+        for (int i = 0; i < innerSwords; i++) {
+            double angle = swordAngle + (i * angleSpacing);
+            drawSword(g2, px, py, angle, 50);
+        }
+
+        // outer ring (remaining swords, max 16)
+        if (outerSwords > 0) {
+            angleSpacing = (2 * Math.PI) / outerSwords;
+            for (int i = 0; i < outerSwords; i++) {
+                double angle = -swordAngle + (i * angleSpacing); // negative angle = opposite rotation
+                drawSword(g2, px, py, angle, 100);
+            }
+        }
+    }
+
+    private void drawSword(Graphics2D g2, int px, int py, double angle, int radius) {
+        int sx = px + (int) (Math.cos(angle) * radius);
+        int sy = py + (int) (Math.sin(angle) * radius);
+        sprites.drawSword(g2, sx, sy, angle + Math.PI / 2);
+    }
+
+    // HUD: Rahmen + feste Texte liegen in hudChrome (nur nach Verlust neu), Werte in hudText (nur bei Änderung neu),
+    // pro Frame also zwei Blits + der HP-Balken
+    private void drawHUD(Graphics2D g2, WorldSnapshot s) {
+        GraphicsConfiguration gc = surface.getGraphicsConfiguration();
+        if (hudChrome.prepare(gc, HUD_W, HUD_H)) {
+            Graphics2D lg = beginLayer(hudChrome);
+            // panel background
+            lg.setColor(new Color(0, 0, 0, 160));
+            lg.fillRoundRect(6, 6, 260, 260, 10, 10);
+
+            // HP Bar
+            lg.setColor(Color.DARK_GRAY);
+            lg.fillRect(10, 10, 204, 18);
+            lg.setColor(Color.RED);
+            lg.drawRect(10, 10, 204, 18);
+
+            lg.setColor(Color.WHITE);
+            lg.drawString("Buy Tower: 100 Score -> press 1", 10, 220);
+            lg.drawString("Shield Saw: press 2 (30s) cd 5min", 10, 240);
+            lg.dispose();
+        }
+        hudChrome.draw(g2, 0, 0);
+
+        int hpw = (int) (200.0 * s.playerHP / s.playerHPMax);
+        g2.setColor(Color.GREEN);
+        g2.fillRect(12, 12, hpw, 14);
+
+        if (hudValuesChanged(s)) hudText.invalidate();
+        if (hudText.prepare(gc, HUD_W, HUD_H)) {
+            Graphics2D lg = beginLayer(hudText);
+            drawHUDText(lg, s);
+            lg.dispose();
+        }
+        hudText.draw(g2, 0, 0);
+    }
+
+    private void drawHUDText(Graphics2D g2, WorldSnapshot s) {
+        g2.setColor(Color.WHITE);
+        g2.drawString(s.reloading ? "Reloading..." : "Ammo: " + s.ammo + "/35", 10, 40);
+        g2.drawString("Score: " + s.score, 10, 60);
+        g2.drawString("Spawned: " + s.totalSpawned + "/" + s.maxTotalEnemies, 10, 80);
+        g2.drawString("Damage Taken: " + s.totalDamageTaken, 10, 100);
+        g2.drawString("Upgrades: " + s.swordCount + " swords", 10, 120);
+        g2.drawString("Health Packs: " + s.totalHealthPacks, 10, 140);
+
+        double shotsPerSec = s.fireDelay > 0 ? 1000.0 / s.fireDelay : 0;
+        g2.drawString(String.format("Fire Rate: %.2f shots/s", shotsPerSec), 10, 160);
+
+        // Shield status
+        String shieldStatus;
+        if (s.shieldActive) shieldStatus = "Shield: ACTIVE (" + (s.shieldLeft / 1000) + "s)";
+        else shieldStatus = s.shieldReadyIn <= 0 ? "Shield: READY (Press 2)" : "Shield CD: " + (s.shieldReadyIn / 1000) + "s";
+        g2.drawString(shieldStatus, 10, 180);
+
+        // Tower info
+        g2.drawString("Towers: " + s.towerCount, 10, 200);
+        g2.drawString("Friendly Fire (F): " + (s.friendlyFire ? "ON" : "OFF"), 10, 260);
+    }
+
+    // alles, was drawHUDText anzeigt (Shield in ganzen Sekunden) - true wenn sich seit dem letzten Frame etwas geändert hat
+    private boolean hudValuesChanged(WorldSnapshot s) {
+        int[] k = hudNow;
+        k[0] = s.reloading ? -1 : s.ammo; k[1] = s.score; k[2] = s.totalSpawned; k[3] = s.maxTotalEnemies;
+        k[4] = s.totalDamageTaken; k[5] = s.swordCount; k[6] = s.totalHealthPacks; k[7] = s.fireDelay;
+        k[8] = s.shieldActive ? 1 : 0;
+        k[9] = (int) (s.shieldActive ? s.shieldLeft / 1000 : s.shieldReadyIn <= 0 ? -1 : s.shieldReadyIn / 1000);
+        k[10] = s.towerCount; k[11] = s.friendlyFire ? 1 : 0;
+        if (Arrays.equals(k, hudKey)) return false;
+        System.arraycopy(k, 0, hudKey, 0, k.length);
+        return true;
+    }
+
+    // Layer-Graphics mit denselben Einstellungen wie das Panel (Font, Antialiasing)
+    private Graphics2D beginLayer(CachedLayer layer) {
+        Graphics2D lg = layer.begin();
+        lg.setFont(getFont());
+        lg.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        return lg;
+    }
+
+    // Profiling-Overlay rechts oben; Zeilen werden nur bei neuem Metrik-Intervall (1 s) neu formatiert
+    private void drawOverlay(Graphics2D g2, WorldSnapshot s) {
+        if (s.simMetricsInterval != overlaySim || renderMetrics.intervals() != overlayRender) {
+            overlayLines = overlayLines(s);
+            overlaySim = s.simMetricsInterval;
+            overlayRender = renderMetrics.intervals();
+        }
+        Font font = g2.getFont();
+        g2.setFont(OVERLAY_FONT);
+        int lineH = 14, w = 330, h = overlayLines.length * lineH + 12, x = s.screenW - w - 6, y = 6;
+        g2.setColor(OVERLAY_BG);
+        g2.fillRoundRect(x, y, w, h, 10, 10);
+        g2.setColor(Color.WHITE);
+        for (int i = 0; i < overlayLines.length; i++) g2.drawString(overlayLines[i], x + 8, y + 16 + i * lineH);
+        g2.setFont(font);
+    }
+
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color OVERLAY_BG = new Color(0, 0, 0, 190);
+
+    private String[] overlayLines(WorldSnapshot s) {
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%-14s %8s %8s %8s", "ms", "p50", "p99", "max"));
+        long[] sim = s.simMetrics;
+        if (sim.length > 0)
+            for (int i = 0; i < GameWorld.M_ALLOC; i++) lines.add(timerLine(GameWorld.METRICS[i], sim, i));
+        long[] r = renderMetrics.summary();
+        lines.add(timerLine("frame", r, R_FRAME));
+        lines.add(timerLine("render", r, R_RENDER));
+        lines.add(String.format("%-14s %8d runs %8.1f ms", "gc", r[R_GC * Metrics.STATS + Metrics.COUNT], r[R_GC * Metrics.STATS + Metrics.SUM] / 1e6));
+        lines.add(String.format("alloc  sim %6.2f MB/s  render %6.2f MB/s",
+                sim.length > 0 ? rate(sim, GameWorld.M_ALLOC) : 0, rate(r, R_ALLOC)));
+        lines.add(String.format("enemies %d  bullets %d  enemy bullets %d", s.enemyCount, s.bulletCount, s.enemyBulletCount));
+        lines.add(String.format("walls %d  towers %d  health packs %d", s.wallCount, s.towerCount, s.healthPackCount));
+        if (s.totalChunks > 1)
+            lines.add(String.format("chunks %d/%d  world enemies %d  walls %d", s.activeChunks, s.totalChunks, s.worldEnemyCount, s.worldWallCount));
+        return lines.toArray(new String[0]);
+    }
+
+    private static String timerLine(String name, long[] m, int metric) {
+        int b = metric * Metrics.STATS;
+        return String.format("%-14s %8.3f %8.3f %8.3f", name, m[b + Metrics.P50] / 1e6, m[b + Metrics.P99] / 1e6, m[b + Metrics.MAX] / 1e6);
+    }
+
+    // Summe der Metrik pro Sekunde des letzten Intervalls, in MB/s
+    private static double rate(long[] m, int metric) {
+        long elapsed = m[m.length - 1];
+        return elapsed == 0 ? 0 : m[metric * Metrics.STATS + Metrics.SUM] / 1e6 / (elapsed / 1e9);
+    }
+
+    // Atlas-Blit (Körper + Balkenrahmen) und nur der grüne HP-Anteil live - pro Enemy keine Allokation.
+    // package-private für SpriteBenchmark; sprites muss schon angelegt sein (render bzw. initSprites)
+    void drawEnemies(Graphics2D g2, WorldSnapshot s, double alpha) {
+        g2.setColor(Color.GREEN);
+        for (int i = 0; i < s.enemyCount; i++) {
+            int x = lerp(s.enemyPrevX[i], s.enemyX[i], alpha), y = lerp(s.enemyPrevY[i], s.enemyY[i], alpha), size = s.enemySize[i];
+            if (!sprites.drawEnemy(g2, x, y, size, s.enemyType[i])) {
+                SpriteAtlas.paintEnemy(g2, x, y, size, s.enemyType[i]);
+                g2.setColor(Color.GREEN);
+            }
+            g2.fillRect(x - size, y - size - 10, (int) (size * 2 * (s.enemyHp[i] / (double) s.enemyMaxHp[i])), 6);
+        }
+    }
+
+    void initSprites(GraphicsConfiguration gc) { sprites = new SpriteAtlas(gc, getFont()); }
+
+    private void drawWall(Graphics2D g2, int x, int y, int w, int h, int type, int hp) {
+        switch (WALL_TYPES[type]) {
+            case STOP: g2.setColor(Color.GRAY); g2.fillRect(x, y, w, h); break;
+            case SLOW: g2.setColor(Color.BLUE); g2.fillRect(x, y, w, h); break;
+            case THROUGH: g2.setColor(Color.DARK_GRAY); g2.fillRect(x, y, w, h); break;
+            case DESTRUCTIBLE: g2.setColor(new Color(200, 100, 0)); g2.fillRect(x, y, w, h); break;
+            case FREEZE: g2.setColor(Color.YELLOW); g2.fillRect(x, y, w, h); break;
+        }
+        if (WALL_TYPES[type] == GameWorld.Wall.Type.DESTRUCTIBLE) {
+            g2.setColor(Color.BLACK);
+            g2.drawString("HP:" + hp, x + 2, y + 12);
+        }
+    }
+
+    private void drawShield(Graphics2D g2, int x, int y, int radius, double angle) {
+        g2.setColor(new Color(0, 255, 255, 60));
+        g2.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+        int sx = (int) (x + Math.cos(angle) * radius);
+        int sy = (int) (y + Math.sin(angle) * radius);
+        g2.setColor(new Color(0, 255, 255, 220));
+        g2.fillOval(sx - 10, sy - 10, 20, 20);
+    }
+
+    private void drawNeonRect(Graphics2D g2, int x, int y, int w, int h, Color base, int stroke) {
+        g2.setColor(new Color(base.getRed(), base.getGreen(), base.getBlue(), 120));
+        g2.fillRect(x, y, w, h);
+        g2.setStroke(new BasicStroke(stroke));
+        g2.setColor(base);
+        g2.drawRect(x, y, w, h);
+        g2.setStroke(new BasicStroke(1));
+    }
+
+    private boolean rectContainsPoint(int rx, int ry, int rw, int rh, double px, double py) {
+        return px >= rx && px <= rx + rw && py >= ry && py <= ry + rh;
+    }
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_F3) { overlay = !overlay; return; } // reine Ansicht, nicht über die Simulation
+        inputQueue.add(e);
+    }
+
+    private void handleKey(KeyEvent e) {
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_W: up = true; break;
+            case KeyEvent.VK_S: down = true; break;
+            case KeyEvent.VK_A: left = true; break;
+            case KeyEvent.VK_D: right = true; break;
+            case KeyEvent.VK_1: world.buyTowers(); break;
+            case KeyEvent.VK_2: world.toggleShield(); break;
+            case KeyEvent.VK_F: world.toggleFriendlyFire(); break;
+            case KeyEvent.VK_SPACE: world.confirm(); break;
+            case KeyEvent.VK_ESCAPE: world.cancel(); break;
+        }
+    }
+
+    @Override public void keyReleased(KeyEvent e) { inputQueue.add(e); }
+    private void handleKeyRelease(KeyEvent e) { switch (e.getKeyCode()) { case KeyEvent.VK_W: up = false; break; case KeyEvent.VK_S: down = false; break; case KeyEvent.VK_A: left = false; break; case KeyEvent.VK_D: right = false; break; } }
+    @Override public void keyTyped(KeyEvent e) {}
+    @Override public void mouseMoved(MouseEvent e) { mouseX = e.getX(); mouseY = e.getY(); }
+    @Override public void mouseDragged(MouseEvent e) { mouseMoved(e); }
+    @Override
+    public void mousePressed(MouseEvent e) { inputQueue.add(e); }
+
+    private void handleMousePress(MouseEvent e) {
+        world.pressMouse();
+        // If paused, handle pause menu button clicks (Layout wie in render)
+        if (world.isPaused()) {
+            int screenW = world.screenW(), screenH = world.screenH();
+            int boxW = 360, boxH = 260;
+            int bx = screenW / 2 - boxW / 2;
+            int by = screenH / 2 - boxH / 2;
+            int bw = 220, bh = 40;
+            int bxBtn = screenW / 2 - bw / 2;
+            int startY = by + 80;
+            int px = e.getX();
+            int py = e.getY();
+            if (rectContainsPoint(bxBtn, startY, bw, bh, px, py)) { world.resume(); return; } // continue
+            if (rectContainsPoint(bxBtn, startY + 60, bw, bh, px, py)) { world.restart(); return; } // restart
+            if (rectContainsPoint(bxBtn, startY + 120, bw, bh, px, py)) { quit = true; simulating = false; return; } // quit: Loop endet, Replay wird geschrieben
+        }
+    }
+    @Override public void mouseReleased(MouseEvent e) { inputQueue.add(e); }
+    @Override public void mouseClicked(MouseEvent e) {}
+    @Override public void mouseEntered(MouseEvent e) {}
+    @Override public void mouseExited(MouseEvent e) {}
+
+    public static void main(String[] args) {
+        List<String> opts = Arrays.asList(args);
+        SwingUtilities.invokeLater(() -> {
+            new SquareShooterExperimental(opts.contains("--stress"), opts.contains("--brute"));
+        });
+    }
+}
@@ -1,3 +1,5 @@
+package squareshooter;
+
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.*;
@@ -25,6 +27,14 @@ import java.util.List;
  * F - Friendly fire toggle (Gegnerkugeln können Gegner verletzen)
  * SPACE - Start / Restart / Next Wave
  * ESC - cancel placing
+ *
+ * Start mit --stress misst die Bullet-vs-Enemy-Kollision (Grid), --stress --brute die alte Variante.
+ *
+ * Vergleichsstand für die Benchmarks (upgraded vs. experimental): bleibt beim Stand vor GameWorld, nur Enemy-Grid und
+ * Wall-BVH sind eingebaut. Die Zeit kommt deshalb weiter aus System.currentTimeMillis() statt aus der GameClock - lastShot = 0
+ * ist hier "lange her", Pause hält die Timer nicht an. Ebenso machen die Swords ihren Schaden noch in drawSwords()
+ * (skaliert mit der Repaint-Rate) und Shield.update() sucht über alle Enemies - das Orbital-System mit einer
+ * Grid-Query pro Tick gibt es nur in GameWorld.updateOrbitals(). Weiterentwickelt wird nur GameWorld/SquareShooterExperimental.
  */
 public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseMotionListener, MouseListener {
     // --- initial preferred size (window is resizable) ---
@@ -58,6 +68,7 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
     private final List<Enemy> enemies = new ArrayList<>();
     private final List<EnemyBullet> enemyBullets = new ArrayList<>();
     private final List<Wall> walls = new ArrayList<>();
+    private final WallIndex<Wall> wallIndex = new WallIndex<>(); // alle Wall-Queries laufen hierüber
     private final List<HealthPack> healthPacks = new ArrayList<>();
 
     private int totalHealthPacks = 0;
@@ -96,9 +107,18 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
 
     private final Random rnd = new Random();
 
+    // --- Broad-phase: Enemies im Grid, Bullets fragen ihre Zelle ab ---
+    private final SpatialGrid enemyGrid = new SpatialGrid(64);
+
+    // --- Stress-Modus (--stress [--brute]): tausende Bullets/Enemies, misst die Kollisionsphase ---
+    private static final int STRESS_ENEMIES = 3000, STRESS_BULLETS = 5000;
+    private boolean stressMode = false, bruteForce = false, stressReport = true;
+    private int stressEnemies, stressBullets;
+    private long stressNanos = 0;
+    private int stressTicks = 0;
+
     public SquareShooterUpgraded() {
-        setPreferredSize(new Dimension(prefWidth, prefHeight));
-        setBackground(Color.BLACK);
+        this(1000, 800);
 
         JFrame frame = new JFrame("Square Shooter — Experimental");
         frame.add(this);
@@ -110,12 +130,6 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         frame.setLocationRelativeTo(null);
         frame.setVisible(true);
 
-        // initial walls (example layout)
-        walls.add(new Wall(300, 200, 60, 200, Wall.Type.STOP));
-        walls.add(new Wall(600, 400, 120, 40, Wall.Type.SLOW));
-        walls.add(new Wall(450, 650, 100, 40, Wall.Type.DESTRUCTIBLE, 35));
-        walls.add(new Wall(150, 150, 40, 300, Wall.Type.THROUGH));
-
         // Game loops (timers)
         new javax.swing.Timer(16, e -> gameLoop()).start();                 // main loop ~60fps
         new javax.swing.Timer(1800, e -> spawnEnemy()).start();            // spawn attempt
@@ -123,6 +137,23 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         new javax.swing.Timer(30000, e -> spawnHealthPacks()).start();     // healthpack spawner
     }
 
+    // ohne Fenster und Timer (Benchmarks): gameLoop() und paintComponent() direkt aufrufen, Spielfeld = width x height
+    SquareShooterUpgraded(int width, int height) {
+        setPreferredSize(new Dimension(prefWidth, prefHeight));
+        setSize(width, height);
+        setBackground(Color.BLACK);
+
+        // initial walls (example layout)
+        addWall(new Wall(300, 200, 60, 200, Wall.Type.STOP));
+        addWall(new Wall(600, 400, 120, 40, Wall.Type.SLOW));
+        addWall(new Wall(450, 650, 100, 40, Wall.Type.DESTRUCTIBLE, 35));
+        addWall(new Wall(150, 150, 40, 300, Wall.Type.THROUGH));
+    }
+
+    // --- Benchmarks (gleiches Package) ---
+    List<Enemy> enemies() { return enemies; }
+    List<Bullet> bullets() { return bullets; }
+
     // --- spawn enemy with screen size awareness ---
     private void spawnEnemy() {
         if (gameOver || titleScreen) return;
@@ -149,7 +180,7 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
     }
 
     // --- main game loop ---
-    private void gameLoop() {
+    void gameLoop() {
         // keep screen size in sync with window (map adapts)
         screenW = Math.max(200, getWidth());
         screenH = Math.max(200, getHeight());
@@ -173,9 +204,8 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
             vy = vy / len * speed;
             int nextX = playerX + (int) vx;
             int nextY = playerY + (int) vy;
-            Rectangle nextPos = new Rectangle(nextX - playerSize / 2, nextY - playerSize / 2, playerSize, playerSize);
-            boolean collides = false;
-            for (Wall w : walls) if (w.blocksPlayer() && nextPos.intersects(w.getBounds())) { collides = true; break; }
+            int half = playerSize / 2;
+            boolean collides = blockedByWall(nextX - half, nextY - half, nextX - half + playerSize, nextY - half + playerSize);
             if (!collides) { playerX = nextX; playerY = nextY; }
         }
 
@@ -190,37 +220,7 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         }
 
         // --- bullets (player) update + wall interactions ---
-        Iterator<Bullet> bit = bullets.iterator();
-        while (bit.hasNext()) {
-            Bullet b = bit.next();
-            b.update();
-            boolean removed = false;
-
-            for (Wall w : new ArrayList<>(walls)) {
-                if (w.getBounds().contains((int) b.x, (int) b.y)) {
-                    switch (w.type) {
-                        case STOP:
-                            removed = true; // bullet stops
-                            break;
-                        case SLOW:
-                            b.vx *= 0.5; b.vy *= 0.5; // slow down
-                            break;
-                        case DESTRUCTIBLE:
-                            w.hp--;
-                            if (w.hp <= 0) walls.remove(w);
-                            // bullet passes through
-                            break;
-                        case THROUGH:
-                            // nothing
-                            break;
-                    }
-                    if (removed) break;
-                }
-            }
-            if (removed) { bit.remove(); continue; }
-
-            if (b.x < -50 || b.x > screenW + 50 || b.y < -50 || b.y > screenH + 50) { bit.remove(); continue; }
-        }
+        updateBullets();
 
         // --- enemy bullets update + wall interactions + collisions ---
         Iterator<EnemyBullet> ebit = enemyBullets.iterator();
@@ -229,24 +229,25 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
             eb.update();
 
             boolean collided = false;
-            for (Wall w : new ArrayList<>(walls)) {
-                if (w.getBounds().contains((int) eb.x, (int) eb.y)) {
-                    switch (w.type) {
-                        case STOP:
-                            collided = true;
-                            break;
-                        case SLOW:
-                            eb.vx *= 0.5; eb.vy *= 0.5;
-                            break;
-                        case DESTRUCTIBLE:
-                            w.hp--;
-                            if (w.hp <= 0) walls.remove(w);
-                            break;
-                        case THROUGH:
-                            break;
-                    }
-                    if (collided) break;
+            int wn = wallIndex.queryPoint((int) eb.x, (int) eb.y);
+            int[] wallHits = wallIndex.result();
+            for (int k = 0; k < wn; k++) {
+                Wall w = wallIndex.get(wallHits[k]);
+                switch (w.type) {
+                    case STOP:
+                        collided = true;
+                        break;
+                    case SLOW:
+                        eb.vx *= 0.5; eb.vy *= 0.5;
+                        break;
+                    case DESTRUCTIBLE:
+                        w.hp--;
+                        if (w.hp <= 0) removeWall(w);
+                        break;
+                    case THROUGH:
+                        break;
                 }
+                if (collided) break;
             }
             if (collided || eb.x < -80 || eb.x > screenW + 80 || eb.y < -80 || eb.y > screenH + 80) { ebit.remove(); continue; }
 
@@ -276,7 +277,7 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
 
         // --- enemies update ---
         for (Enemy en : new ArrayList<>(enemies)) {
-            en.update(playerX, playerY, enemyBullets, walls);
+            en.update(playerX, playerY, enemyBullets);
             Rectangle playerRect = new Rectangle(playerX - playerSize / 2, playerY - playerSize / 2, playerSize, playerSize);
             if (playerRect.intersects(en.getBounds()) && !shieldActive) {
                 takeDamage(en.contactDamage());
@@ -284,14 +285,10 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         }
 
         // --- bullets vs enemies ---
-        for (Bullet b : new ArrayList<>(bullets)) {
-            for (Enemy en : new ArrayList<>(enemies)) {
-                if (en.getBounds().contains((int) b.x, (int) b.y)) {
-                    en.hp -= b.damage;
-                    b.dead = true;
-                }
-            }
-        }
+        if (stressMode) fillStress();
+        long collideStart = System.nanoTime();
+        if (bruteForce) collideBulletsBruteForce(); else collideBulletsGrid();
+        if (stressReport && stressMode) reportStress(System.nanoTime() - collideStart);
         bullets.removeIf(b -> b.dead);
 
         // --- remove dead enemies + score ---
@@ -343,7 +340,127 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         repaint();
     }
 
+    // Spieler-/Tower-Bullets bewegen + Wall-Effekte, entfernt gestoppte und abgeflogene Bullets
+    void updateBullets() {
+        Iterator<Bullet> bit = bullets.iterator();
+        while (bit.hasNext()) {
+            Bullet b = bit.next();
+            b.update();
+            boolean removed = false;
+
+            int wn = wallIndex.queryPoint((int) b.x, (int) b.y);
+            int[] wallHits = wallIndex.result();
+            for (int k = 0; k < wn; k++) {
+                Wall w = wallIndex.get(wallHits[k]);
+                switch (w.type) {
+                    case STOP:
+                        removed = true; // bullet stops
+                        break;
+                    case SLOW:
+                        b.vx *= 0.5; b.vy *= 0.5; // slow down
+                        break;
+                    case DESTRUCTIBLE:
+                        w.hp--;
+                        if (w.hp <= 0) removeWall(w);
+                        // bullet passes through
+                        break;
+                    case THROUGH:
+                        // nothing
+                        break;
+                }
+                if (removed) break;
+            }
+            if (removed) { bit.remove(); continue; }
+
+            if (b.x < -50 || b.x > screenW + 50 || b.y < -50 || b.y > screenH + 50) { bit.remove(); continue; }
+        }
+    }
+
+    // Broad-phase: Enemies einmal pro Tick ins Grid, jede Bullet testet nur die Enemies ihrer Zelle.
+    // Ergebnis identisch zur Brute-Force-Variante (jede getroffene Enemy bekommt Schaden).
+    private void collideBulletsGrid() {
+        enemyGrid.reset(-80, -80, screenW + 80, screenH + 80);
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy en = enemies.get(i);
+            enemyGrid.insert(i, en.x - en.size, en.y - en.size, en.x + en.size, en.y + en.size);
+        }
+        for (Bullet b : bullets) {
+            int bx = (int) b.x, by = (int) b.y;
+            int n = enemyGrid.queryPoint(bx, by);
+            int[] hits = enemyGrid.result();
+            for (int k = 0; k < n; k++) {
+                Enemy en = enemies.get(hits[k]);
+                if (en.getBounds().contains(bx, by)) {
+                    en.hp -= b.damage;
+                    b.dead = true;
+                }
+            }
+        }
+    }
+
+    // alte O(bullets * enemies) Variante, nur noch als Vergleich für den Stress-Modus (--brute)
+    private void collideBulletsBruteForce() {
+        for (Bullet b : new ArrayList<>(bullets)) {
+            for (Enemy en : new ArrayList<>(enemies)) {
+                if (en.getBounds().contains((int) b.x, (int) b.y)) {
+                    en.hp -= b.damage;
+                    b.dead = true;
+                }
+            }
+        }
+    }
+
+    private void enableStress(boolean brute) { enableStress(brute, STRESS_ENEMIES, STRESS_BULLETS, true); }
+
+    // feste Population (Enemies/Bullets werden jeden Tick aufgefüllt), report = Kollisionszeit alle 120 Ticks ausgeben
+    void enableStress(boolean brute, int enemies, int bullets, boolean report) {
+        stressMode = true;
+        bruteForce = brute;
+        stressEnemies = enemies;
+        stressBullets = bullets;
+        stressReport = report;
+        titleScreen = false;
+        resetForNewGame();
+    }
+
+    // hält Enemies/Bullets auf Stress-Niveau (Enemies verteilt, Bullets in zufällige Richtungen)
+    void fillStress() {
+        while (enemies.size() < stressEnemies) enemies.add(new Enemy(rnd.nextInt(screenW), rnd.nextInt(screenH), rnd.nextInt(3)));
+        while (bullets.size() < stressBullets) {
+            double a = rnd.nextDouble() * Math.PI * 2;
+            bullets.add(new Bullet(rnd.nextInt(screenW), rnd.nextInt(screenH), Math.cos(a) * 10, Math.sin(a) * 10, 1));
+        }
+    }
+
+    private void reportStress(long nanos) {
+        stressNanos += nanos;
+        if (++stressTicks < 120) return;
+        System.out.printf("stress [%s] enemies=%d bullets=%d  bullets-vs-enemies avg %.1f us/tick%n",
+                bruteForce ? "brute" : "grid", enemies.size(), bullets.size(), stressNanos / 1000.0 / stressTicks);
+        stressNanos = 0;
+        stressTicks = 0;
+    }
+
+    void addWall(Wall w) {
+        walls.add(w);
+        wallIndex.add(w, w.x, w.y, w.w, w.h);
+    }
+
+    private void removeWall(Wall w) {
+        walls.remove(w);
+        wallIndex.remove(w);
+    }
+
+    // true wenn eine STOP/DESTRUCTIBLE Wall das halboffene Rechteck [x0, x1) x [y0, y1) schneidet
+    private boolean blockedByWall(int x0, int y0, int x1, int y1) {
+        int n = wallIndex.queryRect(x0, y0, x1, y1);
+        int[] hits = wallIndex.result();
+        for (int k = 0; k < n; k++) if (wallIndex.get(hits[k]).blocksPlayer()) return true;
+        return false;
+    }
+
     private void takeDamage(int dmg) {
+        if (stressMode) return; // Spieler unverwundbar im Stress-Modus
         playerHP -= dmg;
         totalDamageTaken += dmg;
         lastDamage = dmg;
@@ -480,6 +597,7 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         }
     }
 
+    // Schaden beim Zeichnen wie im Original (Vergleichsstand, siehe Klassenkommentar)
     private void drawSwords(Graphics2D g2) {
         for (int i = 0; i < swordCount; i++) {
             double angle = swordAngle * (i % 2 == 0 ? 1 : -1) + (i * Math.PI / swordCount);
@@ -694,15 +812,13 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
             else { size = 24; hp = 10; }
             maxHp = hp;
         }
-        void update(int px, int py, List<EnemyBullet> ebList, List<Wall> walls) {
+        void update(int px, int py, List<EnemyBullet> ebList) {
             double dx = px - x, dy = py - y;
             double len = Math.sqrt(dx * dx + dy * dy);
             if (len > 0) {
                 double baseSpeed = (type == 0 ? 3.0 : (type == 1 ? 2.0 : 1.2));
                 int nextX = x + (int) (dx / len * baseSpeed), nextY = y + (int) (dy / len * baseSpeed);
-                Rectangle next = new Rectangle(nextX - size, nextY - size, size * 2, size * 2);
-                boolean collide = false;
-                for (Wall w : walls) if (w.blocksPlayer() && next.intersects(w.getBounds())) { collide = true; break; }
+                boolean collide = blockedByWall(nextX - size, nextY - size, nextX + size, nextY + size);
                 if (!collide) { x = nextX; y = nextY; }
             }
             long now = System.currentTimeMillis();
@@ -854,7 +970,13 @@ public class SquareShooterUpgraded extends JPanel implements KeyListener, MouseM
         }
     }
 
-    public static void main(String[] args) { SwingUtilities.invokeLater(SquareShooterUpgraded::new); }
+    public static void main(String[] args) {
+        List<String> opts = Arrays.asList(args);
+        SwingUtilities.invokeLater(() -> {
+            SquareShooterUpgraded game = new SquareShooterUpgraded();
+            if (opts.contains("--stress")) game.enableStress(opts.contains("--brute"));
+        });
+    }
 }
 
 
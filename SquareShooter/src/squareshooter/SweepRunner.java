@@ -0,0 +1,147 @@
+package squareshooter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * SweepRunner - viele unabhängige GameWorlds parallel (Balancing-Sweeps), Ergebnis als CSV.
+ *
+ * Jede Kombination der Parameter-Listen läuft mit denselben --seeds Seeds (gleiche Zufallsfolgen,
+ * Configs bleiben vergleichbar). Jede Welt hat ihren eigenen SplittableRandom und Spielzeit aus dem
+ * Tick-Zähler, das Ergebnis hängt also nicht von Thread-Anzahl oder Reihenfolge ab.
+ * Verteilt wird über einen Work-Stealing ForkJoinPool, ein Task pro Welt.
+ *
+ * Aufruf: java squareshooter.SweepRunner --maxActive 20,30,40 --waveRamp 5,10 --towerRange 180,220,260
+ *             --targeting nearest,lowest_hp,highest_type --upgradeStep 10 --upgradeScale 0.75,1,1.5 --firstWave 50 --seeds 8 --seed 1
+ *             --ticks 216000 --threads 0 --out sweep.csv
+ * Listen sind kommagetrennt, --threads 0 = alle Kerne.
+ */
+final class SweepRunner {
+    static final int HZ = 60;
+    static final int CURVE_TICKS = HZ * 60; // Score-Kurve (score_by_minute): kumulierter Score am Ende jeder Spielminute, mit ; getrennt
+
+    // eine Welt: Config + Seed rein, Ergebnis raus (nur vom ausführenden Worker geschrieben)
+    static final class Run {
+        final GameWorld.Config config;
+        final long seed;
+        int waves, damage, score;
+        long ticks;
+        boolean gameOver;
+        final StringBuilder scoreCurve = new StringBuilder();
+
+        Run(GameWorld.Config config, long seed) { this.config = config; this.seed = seed; }
+
+        void simulate(long maxTicks) {
+            GameWorld world = new GameWorld(HZ, config, seed);
+            HeadlessRunner.Bot bot = new HeadlessRunner.Bot();
+            world.confirm(); // Title Screen -> Spiel
+            while (!world.isGameOver() && world.tickCount() < maxTicks) {
+                bot.act(world);
+                world.tick();
+                if (world.tickCount() % CURVE_TICKS == 0) {
+                    if (scoreCurve.length() > 0) scoreCurve.append(';');
+                    scoreCurve.append(world.score());
+                }
+            }
+            waves = world.wave() - 1; // komplett geschaffte Waves
+            damage = world.totalDamageTaken();
+            score = world.score();
+            ticks = world.tickCount();
+            gameOver = world.isGameOver();
+        }
+    }
+
+    // teilt den Bereich rekursiv, bis ein Task genau eine Welt simuliert; freie Worker stehlen die andere Hälfte
+    static final class Batch extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final List<Run> runs;
+        private final int from, to;
+        private final long maxTicks;
+
+        Batch(List<Run> runs, int from, int to, long maxTicks) { this.runs = runs; this.from = from; this.to = to; this.maxTicks = maxTicks; }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) { runs.get(from).simulate(maxTicks); return; }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(runs, from, mid, maxTicks), new Batch(runs, mid, to, maxTicks));
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        GameWorld.Config defaults = new GameWorld.Config();
+        String maxActive = "" + defaults.maxActiveEnemies, firstWave = "" + defaults.firstWaveEnemies, waveRamp = "" + defaults.waveRamp;
+        String towerRange = "" + defaults.towerRange, targeting = "" + defaults.towerTargeting, upgradeStep = "" + defaults.upgradeStep, upgradeScale = "" + defaults.upgradeScale;
+        int seeds = 4, threads = 0;
+        long seed = 1, maxTicks = 60L * 60 * HZ;
+        String out = "sweep.csv";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String v = args[i + 1];
+            switch (args[i]) {
+                case "--maxActive": maxActive = v; break;
+                case "--firstWave": firstWave = v; break;
+                case "--waveRamp": waveRamp = v; break;
+                case "--towerRange": towerRange = v; break;
+                case "--targeting": targeting = v; break;
+                case "--upgradeStep": upgradeStep = v; break;
+                case "--upgradeScale": upgradeScale = v; break;
+                case "--seeds": seeds = Integer.parseInt(v); break;
+                case "--seed": seed = Long.parseLong(v); break;
+                case "--ticks": maxTicks = Long.parseLong(v); break;
+                case "--threads": threads = Integer.parseInt(v); break;
+                case "--out": out = v; break;
+                default: throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+
+        // Seeds einmal aus dem Master-Seed ziehen, jede Config läuft mit denselben
+        long[] worldSeeds = new long[seeds];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < seeds; i++) worldSeeds[i] = master.nextLong();
+
+        List<Run> runs = new ArrayList<>();
+        for (String ma : maxActive.split(","))
+            for (String fw : firstWave.split(","))
+                for (String wr : waveRamp.split(","))
+                    for (String tr : towerRange.split(","))
+                        for (String tt : targeting.split(","))
+                            for (String us : upgradeStep.split(","))
+                                for (String sc : upgradeScale.split(",")) {
+                                    GameWorld.Config c = new GameWorld.Config();
+                                    c.maxActiveEnemies = Integer.parseInt(ma.trim());
+                                    c.firstWaveEnemies = Integer.parseInt(fw.trim());
+                                    c.waveRamp = Integer.parseInt(wr.trim());
+                                    c.towerRange = Integer.parseInt(tr.trim());
+                                    c.towerTargeting = GameWorld.Targeting.valueOf(tt.trim().toUpperCase());
+                                    c.upgradeStep = Integer.parseInt(us.trim());
+                                    c.upgradeScale = Double.parseDouble(sc.trim());
+                                    for (long s : worldSeeds) runs.add(new Run(c, s));
+                                }
+
+        ForkJoinPool pool = threads > 0 ? new ForkJoinPool(threads) : ForkJoinPool.commonPool();
+        long start = System.nanoTime();
+        if (!runs.isEmpty()) pool.invoke(new Batch(runs, 0, runs.size(), maxTicks));
+        double secs = (System.nanoTime() - start) / 1e9;
+
+        try (PrintWriter w = new PrintWriter(Files.newBufferedWriter(Paths.get(out)))) {
+            w.println("max_active,first_wave,wave_ramp,tower_range,targeting,upgrade_step,upgrade_scale,seed,waves_survived,damage_taken,score,ticks,game_over,score_by_minute");
+            for (Run r : runs) {
+                GameWorld.Config c = r.config;
+                w.printf("%d,%d,%d,%d,%s,%d,%s,%d,%d,%d,%d,%d,%b,%s%n", c.maxActiveEnemies, c.firstWaveEnemies, c.waveRamp, c.towerRange,
+                        c.towerTargeting, c.upgradeStep, c.upgradeScale, r.seed, r.waves, r.damage, r.score, r.ticks, r.gameOver, r.scoreCurve);
+            }
+        }
+
+        long ticks = 0;
+        for (Run r : runs) ticks += r.ticks;
+        System.out.printf("%d worlds on %d threads, %d ticks in %.2f s -> %.0f ticks/s, written to %s%n",
+                runs.size(), pool.getParallelism(), ticks, secs, ticks / secs, out);
+    }
+}
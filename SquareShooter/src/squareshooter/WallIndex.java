@@ -0,0 +1,303 @@
+package squareshooter;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * WallIndex - BVH über statische Rechtecke (Walls) für Punkt- und Rechteck-Queries in O(log n).
+ *
+ * Walls, die seit dem letzten Query dazukamen (z.B. ein nachgeladener Karten-Chunk), bekommen beim nächsten Query
+ * einen eigenen Teilbaum (Median-Split, max. 4 Walls pro Blatt) - Nachladen kostet O(k log k) für die k neuen Walls,
+ * nicht den Neubau über alle. Über den Wurzeln der Teilbäume liegt ein kleiner Ober-Baum (top), der bei jedem neuen
+ * Teilbaum neu gebaut wird (O(r log r) für r Teilbäume).
+ * remove() markiert die Wall nur als gelöscht (z.B. DESTRUCTIBLE mit hp 0); sind mehr als die Hälfte
+ * gelöscht, wird beim nächsten Query alles zu einem Baum neu gebaut. Treffer kommen in Einfüge-Reihenfolge zurück,
+ * damit die Wall-Effekte in derselben Reihenfolge wie beim Durchlaufen der walls-Liste greifen.
+ * Rechtecke sind halboffen wie java.awt.Rectangle: [x, x + w) x [y, y + h).
+ */
+final class WallIndex<T> {
+    private static final int LEAF_SIZE = 4;
+
+    // --- Walls (ID = Einfüge-Reihenfolge) ---
+    private Object[] items = new Object[16];
+    private int[] minX = new int[16], minY = new int[16], maxX = new int[16], maxY = new int[16];
+    private boolean[] removed = new boolean[16];
+    private int count = 0, removedCount = 0;
+    private final Map<T, Integer> ids = new IdentityHashMap<>();
+
+    // --- Knoten (Blatt: left = -1, Walls order[start .. start + size)) ---
+    private int[] nMinX = new int[16], nMinY = new int[16], nMaxX = new int[16], nMaxY = new int[16];
+    private int[] nLeft = new int[16], nRight = new int[16], nStart = new int[16], nSize = new int[16];
+    private int nodes = 0;
+    private int[] order = new int[16];
+    private boolean dirty = false; // kompletter Neubau fällig (viele gelöscht)
+    private int built = 0;         // Walls [0, built) liegen in Teilbäumen, [built, count) warten auf den nächsten
+
+    // --- Ober-Baum über den Teilbaum-Wurzeln; Kind-Verweis >= 0: Knoten im Teilbaum, < 0: top-Knoten ~ref ---
+    private int[] roots = new int[4];
+    private int rootCount = 0, entry = 0; // entry: Start der Traversierung (wie ein Kind-Verweis)
+    private int[] tMinX = new int[4], tMinY = new int[4], tMaxX = new int[4], tMaxY = new int[4], tLeft = new int[4], tRight = new int[4];
+    private int tops = 0;
+    private long[] rootSort = new long[4];
+
+    private int[] stack = new int[64];
+    private int[] result = new int[16];
+
+    void add(T item, int x, int y, int w, int h) {
+        if (count == items.length) grow();
+        items[count] = item;
+        minX[count] = x; minY[count] = y; maxX[count] = x + w; maxY[count] = y + h;
+        removed[count] = false;
+        ids.put(item, count++);
+    }
+
+    void remove(T item) {
+        Integer id = ids.remove(item);
+        if (id == null || removed[id]) return;
+        removed[id] = true;
+        if (++removedCount * 2 > count) dirty = true;
+    }
+
+    void clear() {
+        Arrays.fill(items, 0, count, null);
+        ids.clear();
+        count = removedCount = nodes = built = rootCount = tops = 0;
+        dirty = false;
+    }
+
+    int size() { return count - removedCount; }
+
+    /** IDs 0 .. idCount() - 1 in Einfüge-Reihenfolge, gelöschte dazwischen (removed); gültig bis zum nächsten Query. */
+    int idCount() { return count; }
+    boolean removed(int id) { return removed[id]; }
+
+    @SuppressWarnings("unchecked")
+    T get(int id) { return (T) items[id]; }
+
+    /** Walls, die den Punkt enthalten. IDs (aufsteigend) stehen danach in {@link #result()}. */
+    int queryPoint(int px, int py) {
+        return query(px, py, px + 1, py + 1);
+    }
+
+    /** Walls, die das halboffene Rechteck [x0, x1) x [y0, y1) schneiden. */
+    int queryRect(int x0, int y0, int x1, int y1) {
+        return query(x0, y0, x1, y1);
+    }
+
+    /** Walls, die die Strecke (x0, y0) -> (x1, y1) berührt (Slab-Test auch gegen die Knoten, siehe Aabb). */
+    int querySegment(double x0, double y0, double x1, double y1) {
+        update();
+        if (rootCount == 0) return 0;
+        int n = 0, sp = 0;
+        stack[sp++] = entry;
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (node < 0) { // Ober-Baum
+                int t = ~node;
+                if (!Aabb.segmentIntersects(x0, y0, x1, y1, tMinX[t], tMinY[t], tMaxX[t], tMaxY[t])) continue;
+                if (sp + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[sp++] = tLeft[t];
+                stack[sp++] = tRight[t];
+                continue;
+            }
+            if (!Aabb.segmentIntersects(x0, y0, x1, y1, nMinX[node], nMinY[node], nMaxX[node], nMaxY[node])) continue;
+            if (nLeft[node] < 0) {
+                for (int i = nStart[node], end = i + nSize[node]; i < end; i++) {
+                    int id = order[i];
+                    if (removed[id] || !Aabb.segmentIntersects(x0, y0, x1, y1, minX[id], minY[id], maxX[id], maxY[id])) continue;
+                    if (n == result.length) result = Arrays.copyOf(result, n * 2);
+                    result[n++] = id;
+                }
+            } else {
+                if (sp + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[sp++] = nLeft[node];
+                stack[sp++] = nRight[node];
+            }
+        }
+        return sortResult(n);
+    }
+
+    /** Eintritts-Anteil der Strecke in Wall id (Aabb.segmentEntry), z.B. um Treffer hinter einer STOP-Wall zu verwerfen. */
+    double segmentEntry(int id, double x0, double y0, double x1, double y1) {
+        return Aabb.segmentEntry(x0, y0, x1, y1, minX[id], minY[id], maxX[id], maxY[id]);
+    }
+
+    /** Ergebnis der letzten Query (wird bei der nächsten Query überschrieben). */
+    int[] result() { return result; }
+
+    private int query(int x0, int y0, int x1, int y1) {
+        update();
+        if (rootCount == 0) return 0;
+        int n = 0, sp = 0;
+        stack[sp++] = entry;
+        while (sp > 0) {
+            int node = stack[--sp];
+            if (node < 0) { // Ober-Baum
+                int t = ~node;
+                if (!Aabb.intersects(tMinX[t], tMinY[t], tMaxX[t], tMaxY[t], x0, y0, x1, y1)) continue;
+                if (sp + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[sp++] = tLeft[t];
+                stack[sp++] = tRight[t];
+                continue;
+            }
+            if (!Aabb.intersects(nMinX[node], nMinY[node], nMaxX[node], nMaxY[node], x0, y0, x1, y1)) continue;
+            if (nLeft[node] < 0) {
+                for (int i = nStart[node], end = i + nSize[node]; i < end; i++) {
+                    int id = order[i];
+                    if (removed[id] || !Aabb.intersects(minX[id], minY[id], maxX[id], maxY[id], x0, y0, x1, y1)) continue;
+                    if (n == result.length) result = Arrays.copyOf(result, n * 2);
+                    result[n++] = id;
+                }
+            } else {
+                if (sp + 2 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+                stack[sp++] = nLeft[node];
+                stack[sp++] = nRight[node];
+            }
+        }
+        return sortResult(n);
+    }
+
+    // Reihenfolge der walls-Liste wiederherstellen: wenige Treffer -> Insertion-Sort, viele (großer Ausschnitt) -> Arrays.sort
+    private int sortResult(int n) {
+        if (n > 32) { Arrays.sort(result, 0, n); return n; }
+        for (int i = 1; i < n; i++) {
+            int v = result[i], j = i - 1;
+            while (j >= 0 && result[j] > v) { result[j + 1] = result[j]; j--; }
+            result[j + 1] = v;
+        }
+        return n;
+    }
+
+    // --- Aufbau ---
+
+    // vor jedem Query: kompletter Neubau oder nur ein Teilbaum für die neuen Walls
+    private void update() {
+        if (dirty) {
+            dirty = false;
+            if (removedCount > 0) compact();
+            nodes = built = rootCount = 0;
+        }
+        if (built == count) return;
+        if (order.length < count) order = Arrays.copyOf(order, items.length); // ältere Teilbäume verweisen weiter hinein
+        for (int i = built; i < count; i++) order[i] = i;
+        if (nMinX.length < nodes + 2 * (count - built)) growNodes(Math.max(nodes + 2 * (count - built), nMinX.length * 2));
+        if (rootCount == roots.length) roots = Arrays.copyOf(roots, rootCount * 2);
+        roots[rootCount++] = build(built, count);
+        built = count;
+        buildTop();
+    }
+
+    // Ober-Baum über alle Teilbaum-Wurzeln (Median-Split der Mittelpunkte), ein einzelner Teilbaum braucht keinen
+    private void buildTop() {
+        tops = 0;
+        if (rootCount == 1) { entry = roots[0]; return; }
+        if (tMinX.length < rootCount) {
+            int cap = Math.max(rootCount, tMinX.length * 2);
+            tMinX = new int[cap]; tMinY = new int[cap]; tMaxX = new int[cap]; tMaxY = new int[cap]; tLeft = new int[cap]; tRight = new int[cap];
+        }
+        if (rootSort.length < rootCount) rootSort = new long[roots.length];
+        entry = buildTop(0, rootCount);
+    }
+
+    // roots[start, end) (>= 2 Wurzeln) -> top-Knoten, liefert den Verweis ~t; einzelne Wurzeln werden direkt verlinkt
+    private int buildTop(int start, int end) {
+        if (end - start == 1) return roots[start];
+        int t = tops++;
+        int bx0 = Integer.MAX_VALUE, by0 = Integer.MAX_VALUE, bx1 = Integer.MIN_VALUE, by1 = Integer.MIN_VALUE;
+        for (int i = start; i < end; i++) {
+            int r = roots[i];
+            bx0 = Math.min(bx0, nMinX[r]); by0 = Math.min(by0, nMinY[r]);
+            bx1 = Math.max(bx1, nMaxX[r]); by1 = Math.max(by1, nMaxY[r]);
+        }
+        tMinX[t] = bx0; tMinY[t] = by0; tMaxX[t] = bx1; tMaxY[t] = by1;
+        boolean byX = bx1 - bx0 >= by1 - by0;
+        for (int i = start; i < end; i++) rootSort[i] = (long) rootKey(roots[i], byX) << 32 | roots[i]; // Mittelpunkt, dann Wurzel
+        Arrays.sort(rootSort, start, end);
+        for (int i = start; i < end; i++) roots[i] = (int) rootSort[i];
+        int mid = (start + end) >>> 1;
+        tLeft[t] = buildTop(start, mid);
+        tRight[t] = buildTop(mid, end);
+        return ~t;
+    }
+
+    private int rootKey(int r, boolean byX) { return byX ? (nMinX[r] + nMaxX[r]) >> 1 : (nMinY[r] + nMaxY[r]) >> 1; }
+
+    private int build(int start, int end) {
+        int node = nodes++;
+        int bx0 = Integer.MAX_VALUE, by0 = Integer.MAX_VALUE, bx1 = Integer.MIN_VALUE, by1 = Integer.MIN_VALUE;
+        int cx0 = Integer.MAX_VALUE, cy0 = Integer.MAX_VALUE, cx1 = Integer.MIN_VALUE, cy1 = Integer.MIN_VALUE;
+        for (int i = start; i < end; i++) {
+            int id = order[i];
+            bx0 = Math.min(bx0, minX[id]); by0 = Math.min(by0, minY[id]);
+            bx1 = Math.max(bx1, maxX[id]); by1 = Math.max(by1, maxY[id]);
+            int cx = centerX(id), cy = centerY(id);
+            cx0 = Math.min(cx0, cx); cy0 = Math.min(cy0, cy);
+            cx1 = Math.max(cx1, cx); cy1 = Math.max(cy1, cy);
+        }
+        nMinX[node] = bx0; nMinY[node] = by0; nMaxX[node] = bx1; nMaxY[node] = by1;
+        if (end - start <= LEAF_SIZE) {
+            nLeft[node] = nRight[node] = -1;
+            nStart[node] = start; nSize[node] = end - start;
+            return node;
+        }
+        // Median-Split entlang der längeren Achse der Mittelpunkte
+        boolean splitX = cx1 - cx0 >= cy1 - cy0;
+        int mid = (start + end) >>> 1;
+        select(start, end - 1, mid, splitX);
+        nLeft[node] = build(start, mid);
+        nRight[node] = build(mid, end);
+        return node;
+    }
+
+    // Quickselect auf order[lo..hi], danach liegt das k-te Element an seiner sortierten Position
+    private void select(int lo, int hi, int k, boolean byX) {
+        while (lo < hi) {
+            int pivot = key(order[(lo + hi) >>> 1], byX), i = lo, j = hi;
+            while (i <= j) {
+                while (key(order[i], byX) < pivot) i++;
+                while (key(order[j], byX) > pivot) j--;
+                if (i <= j) { int t = order[i]; order[i] = order[j]; order[j] = t; i++; j--; }
+            }
+            if (k <= j) hi = j;
+            else if (k >= i) lo = i;
+            else return;
+        }
+    }
+
+    private int key(int id, boolean byX) { return byX ? centerX(id) : centerY(id); }
+    private int centerX(int id) { return (minX[id] + maxX[id]) >> 1; }
+    private int centerY(int id) { return (minY[id] + maxY[id]) >> 1; }
+
+    // gelöschte Walls entfernen, Reihenfolge (und damit IDs relativ zueinander) bleibt erhalten
+    @SuppressWarnings("unchecked")
+    private void compact() {
+        int n = 0;
+        for (int i = 0; i < count; i++) {
+            if (removed[i]) continue;
+            items[n] = items[i];
+            minX[n] = minX[i]; minY[n] = minY[i]; maxX[n] = maxX[i]; maxY[n] = maxY[i];
+            removed[n] = false;
+            ids.put((T) items[n], n);
+            n++;
+        }
+        Arrays.fill(items, n, count, null);
+        count = n;
+        removedCount = 0;
+    }
+
+    private void grow() {
+        int cap = items.length * 2;
+        items = Arrays.copyOf(items, cap);
+        minX = Arrays.copyOf(minX, cap); minY = Arrays.copyOf(minY, cap);
+        maxX = Arrays.copyOf(maxX, cap); maxY = Arrays.copyOf(maxY, cap);
+        removed = Arrays.copyOf(removed, cap);
+    }
+
+    private void growNodes(int cap) {
+        nMinX = Arrays.copyOf(nMinX, cap); nMinY = Arrays.copyOf(nMinY, cap);
+        nMaxX = Arrays.copyOf(nMaxX, cap); nMaxY = Arrays.copyOf(nMaxY, cap);
+        nLeft = Arrays.copyOf(nLeft, cap); nRight = Arrays.copyOf(nRight, cap);
+        nStart = Arrays.copyOf(nStart, cap); nSize = Arrays.copyOf(nSize, cap);
+    }
+}
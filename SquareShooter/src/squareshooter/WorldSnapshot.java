@@ -0,0 +1,129 @@
+package squareshooter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * WorldSnapshot - Render-Kopie des Spielzustands, nur primitive Felder und Arrays.
+ *
+ * Die Simulation schreibt nach jedem Tick in einen freien Puffer und veröffentlicht ihn über
+ * {@link Exchange}, der Renderer liest ausschließlich den zuletzt veröffentlichten Puffer.
+ * Arrays wachsen nur, wenn mehr Objekte da sind als bisher - im Normalbetrieb keine Allokation.
+ */
+final class WorldSnapshot {
+    long tickNanos;                 // Zeitpunkt des Ticks (Interpolation beim Rendern)
+    int screenW, screenH;
+    int camX, camY, prevCamX, prevCamY; // Kamera = Welt-Koordinate der linken oberen Bildschirmecke
+    int activeChunks, totalChunks;
+    boolean titleScreen = true, gameOver, paused, placingTower, waveCleared;
+    boolean reloading, friendlyFire, showDamage, shieldActive;
+    String notifyMessage = "";
+
+    // --- Spieler + HUD ---
+    int playerX, playerY, prevPlayerX, prevPlayerY, playerSize, playerHP, playerHPMax, lastDamage;
+    int ammo, score, totalSpawned, maxTotalEnemies, totalDamageTaken, totalHealthPacks;
+    int fireDelay, bulletSize, towersToPlace, mouseX, mouseY;
+    long shieldLeft, shieldReadyIn;  // ms
+    int shieldX, shieldY, shieldRadius;
+    double shieldAngle;
+    int swordCount;
+    double swordAngle, prevSwordAngle;
+
+    // --- Enemies (große Welt: nur aktive Chunks, worldEnemyCount = alle) ---
+    int enemyCount, worldEnemyCount;
+    int[] enemyX = new int[64], enemyY = new int[64], enemyPrevX = new int[64], enemyPrevY = new int[64];
+    int[] enemySize = new int[64], enemyHp = new int[64], enemyMaxHp = new int[64], enemyType = new int[64];
+
+    // --- Bullets (Spieler/Towers) und Enemy-Bullets ---
+    int bulletCount;
+    double[] bulletX = new double[256], bulletY = new double[256], bulletPrevX = new double[256], bulletPrevY = new double[256];
+    int enemyBulletCount;
+    double[] enemyBulletX = new double[64], enemyBulletY = new double[64], enemyBulletPrevX = new double[64], enemyBulletPrevY = new double[64];
+
+    // --- Walls (type = Wall.Type.ordinal()), nur bei neuer wallVersion kopiert; alle im Bereich wallArea* (Welt-Koordinaten) ---
+    int wallCount, wallVersion = -1, worldWallCount;
+    int wallAreaX, wallAreaY, wallAreaW, wallAreaH;
+    int[] wallX = new int[16], wallY = new int[16], wallW = new int[16], wallH = new int[16], wallType = new int[16], wallHp = new int[16];
+
+    // --- Health packs, Towers ---
+    int healthPackCount;
+    int[] healthPackX = new int[8], healthPackY = new int[8], healthPackSize = new int[8];
+    int towerCount;
+    int[] towerX = new int[8], towerY = new int[8], towerLevel = new int[8];
+
+    // --- Simulations-Metriken (Metrics.summary(), nur bei neuem Intervall kopiert; leer ohne Metriken) ---
+    long[] simMetrics = new long[0];
+    int simMetricsInterval = -1;
+
+    void ensureEnemies(int n) {
+        if (enemyX.length >= n) return;
+        int cap = Math.max(n, enemyX.length * 2);
+        enemyX = Arrays.copyOf(enemyX, cap); enemyY = Arrays.copyOf(enemyY, cap);
+        enemyPrevX = Arrays.copyOf(enemyPrevX, cap); enemyPrevY = Arrays.copyOf(enemyPrevY, cap);
+        enemySize = Arrays.copyOf(enemySize, cap); enemyHp = Arrays.copyOf(enemyHp, cap);
+        enemyMaxHp = Arrays.copyOf(enemyMaxHp, cap); enemyType = Arrays.copyOf(enemyType, cap);
+    }
+
+    void ensureBullets(int n) {
+        if (bulletX.length >= n) return;
+        int cap = Math.max(n, bulletX.length * 2);
+        bulletX = Arrays.copyOf(bulletX, cap); bulletY = Arrays.copyOf(bulletY, cap);
+        bulletPrevX = Arrays.copyOf(bulletPrevX, cap); bulletPrevY = Arrays.copyOf(bulletPrevY, cap);
+    }
+
+    void ensureEnemyBullets(int n) {
+        if (enemyBulletX.length >= n) return;
+        int cap = Math.max(n, enemyBulletX.length * 2);
+        enemyBulletX = Arrays.copyOf(enemyBulletX, cap); enemyBulletY = Arrays.copyOf(enemyBulletY, cap);
+        enemyBulletPrevX = Arrays.copyOf(enemyBulletPrevX, cap); enemyBulletPrevY = Arrays.copyOf(enemyBulletPrevY, cap);
+    }
+
+    void ensureWalls(int n) {
+        if (wallX.length >= n) return;
+        int cap = Math.max(n, wallX.length * 2);
+        wallX = Arrays.copyOf(wallX, cap); wallY = Arrays.copyOf(wallY, cap);
+        wallW = Arrays.copyOf(wallW, cap); wallH = Arrays.copyOf(wallH, cap);
+        wallType = Arrays.copyOf(wallType, cap); wallHp = Arrays.copyOf(wallHp, cap);
+    }
+
+    void ensureHealthPacks(int n) {
+        if (healthPackX.length >= n) return;
+        int cap = Math.max(n, healthPackX.length * 2);
+        healthPackX = Arrays.copyOf(healthPackX, cap); healthPackY = Arrays.copyOf(healthPackY, cap);
+        healthPackSize = Arrays.copyOf(healthPackSize, cap);
+    }
+
+    void ensureTowers(int n) {
+        if (towerX.length >= n) return;
+        int cap = Math.max(n, towerX.length * 2);
+        towerX = Arrays.copyOf(towerX, cap); towerY = Arrays.copyOf(towerY, cap);
+        towerLevel = Arrays.copyOf(towerLevel, cap);
+    }
+
+    /**
+     * Lock-freie Übergabe Simulation -> Renderer (Triple-Buffer).
+     *
+     * Die Simulation füllt back() und ruft publish(), der Renderer holt sich mit latest() den neuesten
+     * fertigen Puffer. Mit nur zwei Puffern müsste die Simulation warten, bis der Renderer fertig ist;
+     * der dritte Puffer sorgt dafür, dass keine Seite je blockiert oder einen halb geschriebenen Zustand sieht.
+     */
+    static final class Exchange {
+        private static final int INDEX = 3, FRESH = 4;
+        private final WorldSnapshot[] buffers = { new WorldSnapshot(), new WorldSnapshot(), new WorldSnapshot() };
+        private final AtomicInteger middle = new AtomicInteger(1); // Index des übergebenen Puffers | FRESH
+        private int back = 0;   // nur Simulation
+        private int front = 2;  // nur Renderer
+
+        /** Puffer, in den die Simulation gerade schreibt. */
+        WorldSnapshot back() { return buffers[back]; }
+
+        /** Veröffentlicht back() und gibt der Simulation einen freien Puffer zurück. */
+        void publish() { back = middle.getAndSet(back | FRESH) & INDEX; }
+
+        /** Neuester veröffentlichter Zustand (bleibt gültig bis zum nächsten Aufruf). */
+        WorldSnapshot latest() {
+            if ((middle.get() & FRESH) != 0) front = middle.getAndSet(front) & INDEX;
+            return buffers[front];
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package squareshooter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AabbTest {
+    // Rechteck [10, 20) x [10, 20)
+    private static double entry(double x0, double y0, double x1, double y1) { return Aabb.segmentEntry(x0, y0, x1, y1, 10, 10, 20, 20); }
+    private static boolean hits(double x0, double y0, double x1, double y1) { return entry(x0, y0, x1, y1) >= 0; }
+
+    @Test
+    void pointPrimitivesAreHalfOpen() {
+        assertTrue(Aabb.contains(10, 10, 20, 20, 10, 10));
+        assertFalse(Aabb.contains(10, 10, 20, 20, 20, 15));
+        assertFalse(Aabb.contains(10, 10, 20, 20, 15, 20));
+        assertTrue(Aabb.intersects(10, 10, 20, 20, 19, 19, 30, 30));
+        assertFalse(Aabb.intersects(10, 10, 20, 20, 20, 10, 30, 20)); // nur Kante berührt
+    }
+
+    @Test
+    void axisParallel() {
+        assertEquals(0.5, entry(0, 15, 20, 15), 1e-12);   // von links, trifft minX bei t = 0.5
+        assertEquals(0.5, entry(30, 15, 10, 15), 1e-12);  // von rechts: Eintritt bei x = 20 (Grenze, Punkt selbst noch draußen)
+        assertEquals(0.5, entry(15, 0, 15, 20), 1e-12);   // von oben
+        assertFalse(hits(0, 15, 9.9, 15));                // endet davor
+        assertTrue(hits(0, 15, 10, 15));                  // endet genau auf minX: drin
+        assertFalse(hits(30, 15, 20, 15));                // endet genau auf maxX: draußen, wie contains(20, 15)
+        assertTrue(hits(30, 15, 19.5, 15));
+    }
+
+    @Test
+    void edgeGrazing() {
+        // entlang der Kanten: min-Seiten gehören dazu, max-Seiten nicht - egal ob senkrecht, waagrecht oder diagonal
+        assertTrue(hits(10, 0, 10, 30));
+        assertFalse(hits(20, 0, 20, 30));
+        assertTrue(hits(0, 10, 30, 10));
+        assertFalse(hits(0, 20, 30, 20));
+        assertFalse(hits(25, 5, 15, -5));                 // diagonal oberhalb vorbei
+        assertFalse(hits(30, 0, 10, 40));                 // diagonal genau durch die Ecke (20, 20): außerhalb
+        assertTrue(hits(0, 0, 10, 10));                   // endet auf der Ecke (10, 10): drin
+        assertFalse(hits(30, 30, 20, 20));                // endet auf der Ecke (20, 20): draußen
+        assertTrue(hits(30, 30, 19, 19));
+        assertFalse(hits(20, 0, 30, 10));                 // rechts oben vorbei
+    }
+
+    @Test
+    void diagonal() {
+        assertEquals(0.25, entry(0, 0, 40, 40), 1e-12);
+        assertEquals(0.5, entry(30, 0, 10, 20), 1e-12);   // von rechts oben, Eintritt bei (20, 10)
+        assertFalse(hits(0, 25, 25, 50));
+    }
+
+    @Test
+    void startInside() {
+        assertEquals(0, entry(15, 15, 100, 100));
+        assertEquals(0, entry(15, 15, 15, 15));
+        assertEquals(0, entry(10, 10, -5, -5));           // Start auf der min-Ecke
+        assertEquals(0, entry(20, 15, 15, 15));           // Start auf maxX ist draußen, direkt danach drin
+        assertFalse(hits(20, 15, 25, 15));                // Start auf maxX, nach außen
+    }
+
+    @Test
+    void zeroLengthMatchesContains() {
+        Random rnd = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            int px = 5 + rnd.nextInt(20), py = 5 + rnd.nextInt(20);
+            assertEquals(Aabb.contains(10, 10, 20, 20, px, py), hits(px, py, px, py), px + "," + py);
+        }
+    }
+
+    @Test
+    void agreesWithDenseSampling() {
+        // zufällige Strecken: Treffer genau dann, wenn ein Punkt darauf (fein abgetastet, Grenzen vermieden) drin liegt
+        Random rnd = new Random(5);
+        for (int i = 0; i < 5_000; i++) {
+            double x0 = rnd.nextDouble() * 40 - 5, y0 = rnd.nextDouble() * 40 - 5, x1 = rnd.nextDouble() * 40 - 5, y1 = rnd.nextDouble() * 40 - 5;
+            boolean sampled = false;
+            for (int k = 0; k <= 4000 && !sampled; k++) {
+                double t = k / 4000.0, x = x0 + (x1 - x0) * t, y = y0 + (y1 - y0) * t;
+                sampled = x >= 10 && x < 20 && y >= 10 && y < 20;
+            }
+            if (sampled) assertTrue(hits(x0, y0, x1, y1));
+            double e = entry(x0, y0, x1, y1);
+            if (e >= 0 && !sampled) { // nur knapp streifende Strecken dürfen beim Abtasten durchrutschen
+                double x = x0 + (x1 - x0) * e, y = y0 + (y1 - y0) * e;
+                assertTrue(x >= 10 - 1e-6 && x <= 20 && y >= 10 - 1e-6 && y <= 20);
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package squareshooter;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class GameWorldTest {
+    private static GameWorld started() {
+        GameWorld w = new GameWorld(60, new GameWorld.Config(), 1);
+        w.confirm(); // Title Screen -> Spiel, Spielzeit steht noch bei 0
+        return w;
+    }
+
+    @Test
+    void firstShotIsNotDelayedByGameTimeZero() {
+        GameWorld w = started();
+        w.setMouse(100, 100);
+        w.pressMouse();
+        w.tick();
+        assertTrue(w.bullets().size() > 0, "erster Schuss muss sofort fallen");
+    }
+
+    @Test
+    void spawnedEntitiesAreReady() {
+        GameWorld w = started();
+        int e = w.addEnemy(300, 300, 1);
+        int t = w.addTower(400, 400);
+        assertEquals(GameWorld.LONG_AGO, w.enemies().lastFire[e]);
+        assertEquals(GameWorld.LONG_AGO, w.towers().lastFire[t]);
+    }
+
+    @Test
+    void shootingAllocatesNothingInSteadyState() {
+        assumeTrue(Metrics.allocatedBytes() > 0, "JVM misst keine Allokationen pro Thread");
+        GameWorld.Config c = new GameWorld.Config();
+        c.maxActiveEnemies = 0; // nur der Spieler schießt, keine Spawns
+        GameWorld w = new GameWorld(60, c, 1);
+        w.confirm();
+        w.setMouse(900, 100);
+        w.pressMouse(); // gedrückt halten: Dauerfeuer mit Nachladen
+        for (int t = 0; t < 3000; t++) w.tick(); // Pool-Kapazität erreicht, Code warm
+        int shots = 0;
+        long before = Metrics.allocatedBytes();
+        for (int t = 0; t < 3000; t++) {
+            int n = w.bullets().size();
+            w.tick();
+            if (w.bullets().size() > n) shots++;
+        }
+        long allocated = Metrics.allocatedBytes() - before;
+        assertTrue(shots >= 50, "nur " + shots + " Schüsse");
+        assertEquals(0, allocated, shots + " Schüsse");
+    }
+
+    // Bullet mit speed px/Tick ab x = 100 + off waagrecht auf eine 16 px dicke STOP-Wall: kommt sie dahinter an?
+    private static boolean tunnels(int speed, int off) {
+        GameWorld w = new GameWorld(60, new GameWorld.Config(), 1);
+        w.confirm();
+        w.addWall(w.new Wall(300, 500, 16, 100, GameWorld.Wall.Type.STOP));
+        w.bullets().add(100 + off, 550, speed, 0, 1, -1);
+        for (int t = 0; t < 30; t++) {
+            w.tick();
+            for (int i = 0; i < w.bullets().size(); i++) if (w.bullets().y[i] == 550 && w.bullets().x[i] >= 316) return true;
+        }
+        return false;
+    }
+
+    @Test
+    void fastBulletsDoNotTunnelThroughThinWalls() {
+        int trials = 0, stopped = 0, skipsWall = 0;
+        for (int speed = 12; speed <= 60; speed += 4)
+            for (int off = 0; off < speed; off += 3) {
+                trials++;
+                if (!tunnels(speed, off)) stopped++;
+                int x = 100 + off; // landet eine Position nach einem Tick in der Wall? Sonst sähe ein Punkt-Test sie nie
+                while (x < 300) x += speed;
+                if (x >= 316) skipsWall++;
+            }
+        assertEquals(160, trials);
+        assertEquals(trials, stopped);
+        assertTrue(skipsWall > 0, "keine Bullet springt über die Wall, sonst prüft der Test nichts");
+    }
+
+    // 10 Hz: Bullets fliegen 60 px pro Tick (10 px bei 60 Hz), weiter als die 16 px Wall bzw. die 36 px Enemy breit sind
+    private static GameWorld at10Hz() {
+        GameWorld w = new GameWorld(10, new GameWorld.Config(), 1);
+        w.confirm();
+        w.setMouse(900, 400); // Spieler steht bei (500, 400), Schuss waagrecht nach rechts
+        return w;
+    }
+
+    @Test
+    void lowTickRateStillHitsThinWalls() {
+        GameWorld w = at10Hz();
+        w.addWall(w.new Wall(600, 300, 16, 200, GameWorld.Wall.Type.STOP)); // Bullet bei x = 560, 620, ...: nie darin
+        w.pressMouse();
+        w.releaseMouse();
+        assertEquals(1, w.bullets().size());
+        assertEquals(60, w.bullets().vx[0], 1e-9);
+        for (int t = 0; t < 10; t++) {
+            w.tick();
+            for (int i = 0; i < w.bullets().size(); i++) assertTrue(w.bullets().x[i] < 616, "Bullet durch die Wall getunnelt");
+        }
+        assertEquals(0, w.bullets().size());
+    }
+
+    @Test
+    void lowTickRateStillHitsEnemies() {
+        GameWorld w = at10Hz();
+        int e = w.addEnemy(640, 400, 0); // [622, 658): Bullet bei x = 560, 620, 680 liegt nie darin
+        w.pressMouse();
+        w.releaseMouse();
+        w.tick();
+        w.tick();
+        assertEquals(3, w.enemies().hp[e]);
+        assertEquals(0, w.bullets().size());
+    }
+}
@@ -0,0 +1,106 @@
+package squareshooter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+    // Obergrenze des Buckets von v: v plus ein riesiger Wert, p50 trifft dann v's Bucket und wird nicht von max geklemmt
+    private static long upper(long v) {
+        Histogram h = new Histogram();
+        h.record(v);
+        h.record(Long.MAX_VALUE);
+        return h.percentile(0.5);
+    }
+
+    private static void assertBucket(long v) {
+        long u = upper(v);
+        assertTrue(u >= v, "Bucket von " + v + " endet unter dem Wert: " + u);
+        assertTrue(u - v <= v / 64, "relativer Fehler > 1/64 bei " + v + ": " + u);
+    }
+
+    @Test
+    void exactBelow128() {
+        for (long v = 0; v < 128; v++) assertEquals(v, upper(v));
+    }
+
+    @Test
+    void contiguousAt127And128() {
+        assertEquals(127, upper(127));
+        assertEquals(129, upper(128)); // erster log-linearer Bucket: 128..129
+        assertEquals(129, upper(129));
+        assertEquals(131, upper(130));
+    }
+
+    @Test
+    void bucketsAreContiguousAndBounded() {
+        // jeder Wert in genau einem Bucket: Obergrenzen steigen monoton, Wert <= Obergrenze, Fehler <= 1/64
+        long prev = -1;
+        for (long v = 0; v < 1 << 16; v++) {
+            long u = upper(v);
+            assertTrue(u >= prev, "nicht monoton bei " + v);
+            if (prev >= v) assertEquals(prev, u, "Lücke oder Überlappung bei " + v);
+            assertBucket(v);
+            prev = u;
+        }
+        for (int b = 7; b < 63; b++) { // Zweierpotenz-Grenzen über den ganzen Bereich
+            long p = 1L << b;
+            assertBucket(p - 1);
+            assertBucket(p);
+            assertBucket(p + 1);
+            assertEquals(p - 1, upper(p - 1), "Bucket vor 2^" + b + " muss bei 2^" + b + " - 1 enden");
+        }
+    }
+
+    @Test
+    void topBucket() {
+        assertEquals(Long.MAX_VALUE, upper(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, upper((1L << 62) + (63L << 56))); // letzter Bucket 2^62 + 63 * 2^56 .. MAX
+        assertEquals((1L << 62) + (63L << 56) - 1, upper((1L << 62) + (63L << 56) - 1));
+        Histogram h = new Histogram();
+        h.record(1L << 62);
+        h.record(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, h.percentile(1.0));
+        assertEquals(Long.MAX_VALUE, h.max());
+    }
+
+    @Test
+    void percentileRankRounding() {
+        Histogram h = new Histogram();
+        for (int v = 1; v <= 100; v++) h.record(v);
+        assertEquals(1, h.percentile(0.0));    // Rang mindestens 1
+        assertEquals(1, h.percentile(0.01));
+        assertEquals(50, h.percentile(0.50));
+        assertEquals(51, h.percentile(0.501)); // ceil(50.1) = 51
+        assertEquals(99, h.percentile(0.99));
+        assertEquals(100, h.percentile(0.995));
+        assertEquals(100, h.percentile(1.0));
+        assertEquals(0, new Histogram().percentile(0.5));
+    }
+
+    @Test
+    void knownDistributionsWithinOneSixtyFourth() {
+        Random rnd = new Random(1);
+        long[][] samples = new long[3][100_000];
+        for (int i = 0; i < samples[0].length; i++) {
+            samples[0][i] = 1 + rnd.nextInt(1_000_000);                          // gleichverteilt
+            samples[1][i] = (long) (16_666_667 + rnd.nextGaussian() * 500_000);    // Frame-Zeiten um 16.7 ms
+            samples[2][i] = (long) Math.exp(rnd.nextDouble() * 40);                // über viele Größenordnungen
+        }
+        for (long[] s : samples) {
+            Histogram h = new Histogram();
+            for (long v : s) h.record(v);
+            long[] sorted = s.clone();
+            Arrays.sort(sorted);
+            for (double p : new double[]{0.5, 0.9, 0.95, 0.99, 0.999}) {
+                long exact = sorted[(int) Math.ceil(p * sorted.length) - 1], est = h.percentile(p);
+                assertTrue(est >= exact && est - exact <= exact / 64, "p" + p + ": exakt " + exact + ", Histogramm " + est);
+            }
+            assertEquals(sorted[sorted.length - 1], h.max());
+            assertEquals(s.length, h.count());
+        }
+    }
+}
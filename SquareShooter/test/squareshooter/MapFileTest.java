@@ -0,0 +1,50 @@
+package squareshooter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapFileTest {
+    @TempDir Path dir;
+
+    @Test
+    void roundTripLoadsEveryWallOnce() throws IOException {
+        MapFile.Builder b = MapFile.Builder.random(5000, 5000, 2000, 3);
+        Path file = dir.resolve("m.sqm");
+        b.write(file);
+        MapFile map = MapFile.open(file);
+        int[] n = {0};
+        int first = map.load(0, 0, 1000, 1000, (x, y, w, h, type, hp) -> n[0]++);
+        assertEquals(first, n[0]);
+        assertEquals(0, map.load(0, 0, 1000, 1000, (x, y, w, h, type, hp) -> n[0]++)); // Chunks nur einmal
+        map.loadAll((x, y, w, h, type, hp) -> n[0]++);
+        assertEquals(b.walls, n[0]);
+    }
+
+    @Test
+    void corruptDirectoryIsAnIOException() throws IOException {
+        Path file = dir.resolve("m.sqm");
+        MapFile.Builder.random(3000, 3000, 100, 4).write(file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        int spawns = buf.getInt(32), directory = 40 + spawns * 16;
+        buf.putInt(directory + 4, 101); // Chunk 0: mehr Walls als die Datei hat
+        Files.write(file, bytes);
+        IOException e = assertThrows(IOException.class, () -> MapFile.open(file));
+        assertTrue(e.getMessage().contains("directory"), e.getMessage());
+
+        buf.putInt(directory + 4, 0);
+        buf.putInt(directory, -1);
+        Files.write(file, bytes);
+        assertThrows(IOException.class, () -> MapFile.open(file));
+
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> MapFile.open(file));
+    }
+}
@@ -0,0 +1,36 @@
+package squareshooter;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Spielt den Korpus in replays/ ab (wie ReplayRunner) und vergleicht den Zustands-Hash am Ende. Eine Aufnahme pro
+ * Spielart (Standard, große Welt, Karte, Friendly-Fire).
+ * Neu aufnehmen (nach Format- oder Verhaltensänderungen alle): java squareshooter.HeadlessRunner --games 1 --ticks 4000 --seed n --record /tmp/rec
+ */
+class ReplayCorpusTest {
+    @TestFactory
+    Stream<DynamicTest> corpusReplaysBitExact() throws IOException {
+        List<Path> files;
+        try (Stream<Path> s = Files.list(Paths.get("replays"))) {
+            files = s.filter(f -> f.toString().endsWith(".sqr")).sorted().collect(Collectors.toList());
+        }
+        assertFalse(files.isEmpty(), "kein Replay-Korpus in " + Paths.get("replays").toAbsolutePath());
+        return files.stream().map(file -> DynamicTest.dynamicTest(file.getFileName().toString(), () -> {
+            Replay replay = Replay.read(file);
+            GameWorld world = replay.play();
+            assertEquals(replay.ticks, world.tickCount());
+            assertEquals(replay.hash, world.stateHash(), "Zustands-Hash weicht ab");
+        }));
+    }
+}
@@ -0,0 +1,72 @@
+package squareshooter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WallIndexTest {
+    private static final class W {
+        final int x, y, w, h;
+        boolean removed;
+        W(int x, int y, int w, int h) { this.x = x; this.y = y; this.w = w; this.h = h; }
+    }
+
+    // erwartete IDs = Positionen in der Liste der noch vorhandenen Walls (Einfüge-Reihenfolge)
+    private static List<W> live(List<W> all) {
+        List<W> l = new ArrayList<>();
+        for (W w : all) if (!w.removed) l.add(w);
+        return l;
+    }
+
+    private static void assertQueries(WallIndex<W> index, List<W> all, Random rnd) {
+        for (int q = 0; q < 200; q++) {
+            int x0 = rnd.nextInt(4000) - 100, y0 = rnd.nextInt(4000) - 100, x1 = x0 + 1 + rnd.nextInt(300), y1 = y0 + 1 + rnd.nextInt(300);
+            List<W> expected = new ArrayList<>();
+            for (W w : all) if (!w.removed && Aabb.intersects(w.x, w.y, w.x + w.w, w.y + w.h, x0, y0, x1, y1)) expected.add(w);
+            int n = index.queryRect(x0, y0, x1, y1);
+            List<W> got = new ArrayList<>();
+            for (int k = 0; k < n; k++) got.add(index.get(index.result()[k]));
+            assertEquals(expected, got, "queryRect " + x0 + "," + y0 + " " + x1 + "," + y1);
+
+            double sx = rnd.nextDouble() * 4000, sy = rnd.nextDouble() * 4000, ex = sx + rnd.nextGaussian() * 200, ey = sy + rnd.nextGaussian() * 200;
+            expected.clear();
+            for (W w : all) if (!w.removed && Aabb.segmentIntersects(sx, sy, ex, ey, w.x, w.y, w.x + w.w, w.y + w.h)) expected.add(w);
+            n = index.querySegment(sx, sy, ex, ey);
+            got.clear();
+            for (int k = 0; k < n; k++) got.add(index.get(index.result()[k]));
+            assertEquals(expected, got, "querySegment");
+        }
+    }
+
+    @Test
+    void batchesAndRemovalsMatchBruteForce() {
+        Random rnd = new Random(9);
+        WallIndex<W> index = new WallIndex<>();
+        List<W> all = new ArrayList<>();
+        for (int batch = 0; batch < 40; batch++) { // wie nachgeladene Chunks: Walls kommen in Gruppen, dazwischen Queries
+            int cx = rnd.nextInt(4) * 1000, cy = rnd.nextInt(4) * 1000, k = rnd.nextInt(60);
+            for (int i = 0; i < k; i++) {
+                W w = new W(cx + rnd.nextInt(1000), cy + rnd.nextInt(1000), 1 + rnd.nextInt(120), 1 + rnd.nextInt(120));
+                all.add(w);
+                index.add(w, w.x, w.y, w.w, w.h);
+            }
+            for (int i = 0; i < 5 && !all.isEmpty(); i++) {
+                W w = all.get(rnd.nextInt(all.size()));
+                w.removed = true;
+                index.remove(w);
+            }
+            assertEquals(live(all).size(), index.size());
+            assertQueries(index, all, rnd);
+        }
+        for (W w : all) { w.removed = true; index.remove(w); } // alles weg: kompletter Neubau auf leer
+        assertEquals(0, index.queryRect(-1000, -1000, 10000, 10000));
+        W w = new W(10, 10, 5, 5);
+        all.add(w);
+        index.add(w, 10, 10, 5, 5);
+        assertEquals(1, index.queryPoint(12, 12));
+    }
+}